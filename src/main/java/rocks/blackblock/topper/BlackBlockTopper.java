@@ -1,21 +1,31 @@
 package rocks.blackblock.topper;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.item.Item;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import rocks.blackblock.core.BlackBlockCore;
 import rocks.blackblock.core.component.Component;
 import rocks.blackblock.core.component.ComponentKey;
 import rocks.blackblock.topper.compat.TopperEntrypoint;
+import rocks.blackblock.topper.creative.CreativeItemTable;
 import rocks.blackblock.topper.creative.CreativeScreen;
 import rocks.blackblock.topper.creative.CreativeTab;
 import rocks.blackblock.topper.server.Commands;
+import rocks.blackblock.topper.statistics.CustomStatisticEvents;
 import rocks.blackblock.topper.statistics.CustomStatisticsComponent;
+import rocks.blackblock.topper.statistics.ItemStatCache;
+import rocks.blackblock.topper.statistics.ModStatLeaderboards;
+import rocks.blackblock.topper.statistics.OfflineStatsIndex;
+import rocks.blackblock.topper.statistics.ServerStatisticsComponent;
 import rocks.blackblock.topper.statistics.StatisticsScreen;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -35,6 +45,9 @@ public class BlackBlockTopper implements ModInitializer {
     // Custom statistics component
     public static ComponentKey.Global<CustomStatisticsComponent> CUSTOM_STATS = Component.Global.register(BlackBlockCore.id("custom_stats"), CustomStatisticsComponent.class, CustomStatisticsComponent::new);
 
+    // Server-wide statistic totals component
+    public static ComponentKey.Global<ServerStatisticsComponent> SERVER_STATS = Component.Global.register(BlackBlockCore.id("server_stats"), ServerStatisticsComponent.class, ServerStatisticsComponent::new);
+
 
     /**
      * Set the placement of an item on the creative screen
@@ -45,7 +58,11 @@ public class BlackBlockTopper implements ModInitializer {
      */
     public static void setCreativeScreenPlacement(Item item, int index, CreativeTab... tabs) {
         CREATIVE_ITEMS.put(index, item);
-        Arrays.stream(tabs).toList().forEach(tab -> CreativeScreen.TAB_FILTERS.get(tab).add(item));
+        CreativeItemTable.invalidate();
+        Arrays.stream(tabs).toList().forEach(tab -> {
+            ArrayList<Item> filter = CreativeScreen.TAB_FILTERS.get(tab);
+            if (!filter.contains(item)) filter.add(item);
+        });
     }
 
     /**
@@ -56,6 +73,7 @@ public class BlackBlockTopper implements ModInitializer {
      */
     public static void setStatisticsScreenPlacement(Identifier statistic_id, Item icon) {
         STAT_ITEMS.put(statistic_id, icon);
+        ItemStatCache.invalidateModStats();
     }
 
     @Override
@@ -69,6 +87,9 @@ public class BlackBlockTopper implements ModInitializer {
             entrypointEntry.registerTopperInfo(this);
         }
 
+        // Everything is registered now, so freeze the creative items & their stat handles, and index them for searching.
+        CreativeItemTable.get().getSearchIndex();
+
         // Register screens
         if (FabricLoader.getInstance().isModLoaded("polymc")) {
             CreativeScreen.registerScreen();
@@ -77,5 +98,26 @@ public class BlackBlockTopper implements ModInitializer {
 
         // Register commands
         Commands.register();
+
+        // Journal custom statistic score changes between saves, and wait for async saves on shutdown.
+        ServerLifecycleEvents.SERVER_STARTING.register(server ->
+                CustomStatisticsComponent.setDataDirectory(server.getSavePath(WorldSavePath.ROOT).resolve("data")));
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            CustomStatisticsComponent.getInstance().startJournal();
+            ServerStatisticsComponent.getInstance().seed(server);
+            OfflineStatsIndex.start(server);
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            CustomStatisticsComponent.getInstance().flushJournal();
+            CustomStatisticEvents.flush();
+            ServerStatisticsComponent.getInstance().tick(server);
+            ModStatLeaderboards.tick(server);
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            OfflineStatsIndex.stop();
+            CustomStatisticEvents.drain();
+            CustomStatisticsComponent.awaitSaves();
+            CustomStatisticsComponent.getInstance().closeJournal();
+        });
     }
 }
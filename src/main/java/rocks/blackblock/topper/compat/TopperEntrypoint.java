@@ -1,7 +1,36 @@
 package rocks.blackblock.topper.compat;
 
 import rocks.blackblock.topper.BlackBlockTopper;
+import rocks.blackblock.topper.statistics.CustomStatisticEvents;
+import rocks.blackblock.topper.statistics.CustomStatisticMutation;
+import rocks.blackblock.topper.statistics.CustomStatisticsComponent;
+
+import java.util.Collection;
 
 public interface TopperEntrypoint {
     void registerTopperInfo(BlackBlockTopper topper);
+
+    /**
+     * Apply many custom statistic score changes in one pass.
+     * Mods that update lots of scores at once should use this instead of setting them one by one.
+     * Returns the amount of scores that were changed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    static int applyCustomStatisticMutations(Collection<CustomStatisticMutation> mutations) {
+        return CustomStatisticsComponent.getInstance().applyMutations(mutations);
+    }
+
+    /**
+     * Get the custom statistic score changes of every tick, as one batch at the end of it.
+     * Listeners added with {@code async} are called on a background thread instead of the server thread.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    static void onCustomStatisticChanges(CustomStatisticEvents.ScoreChangeListener listener, boolean async) {
+        if (async) CustomStatisticEvents.registerAsync(listener);
+        else CustomStatisticEvents.register(listener);
+    }
 }
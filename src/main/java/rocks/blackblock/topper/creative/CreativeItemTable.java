@@ -0,0 +1,218 @@
+package rocks.blackblock.topper.creative;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.Item;
+import net.minecraft.stat.Stat;
+import net.minecraft.stat.Stats;
+import rocks.blackblock.topper.BlackBlockTopper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A frozen copy of the registered creative items, in creative screen order.
+ * Every item's block and stat handles are resolved once, and kept in parallel arrays indexed by the item's ordinal,
+ * so screens and sorts never have to go through getOrCreateStat or instanceof checks.
+ *
+ * The table is built once the topper entrypoints have registered their items,
+ * and rebuilt if an item gets registered after that.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class CreativeItemTable {
+
+    // The item stat columns, in the order they are shown.
+    public static final int MINED = 0;
+    public static final int CRAFTED = 1;
+    public static final int USED = 2;
+    public static final int BROKEN = 3;
+    public static final int PICKED_UP = 4;
+    public static final int DROPPED = 5;
+    public static final int COLUMNS = 6;
+
+    private static CreativeItemTable INSTANCE = null;
+
+    private final List<Item> item_list;
+    private final Item[] items;
+    private final Block[] blocks;
+    private final Stat<?>[][] stats;
+    private final Reference2IntOpenHashMap<Item> ordinals = new Reference2IntOpenHashMap<>();
+    private final Reference2ObjectOpenHashMap<Stat<?>, int[]> stat_slots = new Reference2ObjectOpenHashMap<>();
+    private final Item[][] tab_items = new Item[CreativeTab.values().length][];
+    private int[] alphabetical_ranks = null;
+    private CreativeSearchIndex search_index = null;
+
+    private CreativeItemTable(List<Item> item_list) {
+        int size = item_list.size();
+        this.item_list = item_list;
+        this.items = item_list.toArray(new Item[0]);
+        this.blocks = new Block[size];
+        this.stats = new Stat<?>[COLUMNS][size];
+        this.ordinals.defaultReturnValue(-1);
+
+        for (int i = 0; i < size; i++) {
+            Item item = this.items[i];
+            this.ordinals.putIfAbsent(item, i);
+
+            // Resolve the block & stat handles.
+            if (item instanceof BlockItem blockItem) {
+                this.blocks[i] = blockItem.getBlock();
+                this.stats[MINED][i] = Stats.MINED.getOrCreateStat(this.blocks[i]);
+            }
+            this.stats[CRAFTED][i] = Stats.CRAFTED.getOrCreateStat(item);
+            this.stats[USED][i] = Stats.USED.getOrCreateStat(item);
+            this.stats[BROKEN][i] = Stats.BROKEN.getOrCreateStat(item);
+            this.stats[PICKED_UP][i] = Stats.PICKED_UP.getOrCreateStat(item);
+            this.stats[DROPPED][i] = Stats.DROPPED.getOrCreateStat(item);
+
+            // Remember where each stat ends up.
+            for (int column = 0; column < COLUMNS; column++)
+                if (this.stats[column][i] != null)
+                    this.addSlot(this.stats[column][i], i * COLUMNS + column);
+        }
+
+        // Resolve the contents of each tab, in creative screen order.
+        for (CreativeTab tab : CreativeTab.values()) {
+            if (tab == CreativeTab.ALL) {
+                this.tab_items[tab.ordinal()] = this.items;
+                continue;
+            }
+
+            List<Item> filter = CreativeScreen.TAB_FILTERS.get(tab);
+            ReferenceOpenHashSet<Item> members = filter == null ? new ReferenceOpenHashSet<>() : new ReferenceOpenHashSet<>(filter);
+            List<Item> tab_items = new ArrayList<>(members.size());
+            for (Item item : this.items)
+                if (members.contains(item))
+                    tab_items.add(item);
+            this.tab_items[tab.ordinal()] = tab_items.toArray(new Item[0]);
+        }
+    }
+
+    // Several items can share a block, so a stat can end up in more than one slot.
+    private void addSlot(Stat<?> stat, int slot) {
+        int[] slots = this.stat_slots.get(stat);
+        if (slots == null) slots = new int[]{slot};
+        else {
+            slots = Arrays.copyOf(slots, slots.length + 1);
+            slots[slots.length - 1] = slot;
+        }
+        this.stat_slots.put(stat, slots);
+    }
+
+    public int size() { return this.items.length; }
+    public List<Item> getItems() { return this.item_list; }
+
+    /**
+     * Get a new, modifiable list of the items on the given tab, in creative screen order.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public List<Item> getTabItems(CreativeTab tab) {
+        return new ArrayList<>(Arrays.asList(this.tab_items[tab.ordinal()]));
+    }
+    public Item getItem(int ordinal) { return this.items[ordinal]; }
+
+    /**
+     * Get the ordinal of the given item, or -1 if it isn't a creative item.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getOrdinal(Item item) { return this.ordinals.getInt(item); }
+
+    /**
+     * Get the block of the item with the given ordinal, or null if it isn't a block item.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public Block getBlock(int ordinal) { return this.blocks[ordinal]; }
+    public boolean isBlock(int ordinal) { return this.blocks[ordinal] != null; }
+
+    /**
+     * Get the stat handle of the item with the given ordinal.
+     * Returns null for the mined column of items that aren't blocks.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public Stat<?> getStat(int ordinal, int column) { return this.stats[column][ordinal]; }
+
+    /**
+     * Get the slots (ordinal * COLUMNS + column) the given stat is shown in, or null if it isn't shown.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int[] getStatSlots(Stat<?> stat) { return this.stat_slots.get(stat); }
+
+    /**
+     * Get the position of the item with the given ordinal when all items are sorted by their lowercase name.
+     * The names are only resolved & sorted once, the first time this is needed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getAlphabeticalRank(int ordinal) {
+        if (this.alphabetical_ranks == null) {
+            String[] names = new String[this.items.length];
+            Integer[] sorted = new Integer[this.items.length];
+            for (int i = 0; i < this.items.length; i++) {
+                names[i] = this.items[i].getName().getString().toLowerCase();
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, (a, b) -> names[a].compareTo(names[b]));
+
+            int[] ranks = new int[this.items.length];
+            for (int rank = 0; rank < sorted.length; rank++)
+                ranks[sorted[rank]] = rank;
+            this.alphabetical_ranks = ranks;
+        }
+        return this.alphabetical_ranks[ordinal];
+    }
+
+    /**
+     * Get the search index of these items, building it if needed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public CreativeSearchIndex getSearchIndex() {
+        if (this.search_index == null)
+            this.search_index = new CreativeSearchIndex(this);
+        return this.search_index;
+    }
+
+    /**
+     * Get the current table, building it if needed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static CreativeItemTable get() {
+        if (INSTANCE == null) {
+            List<Item> item_list = BlackBlockTopper.CREATIVE_ITEMS.values().stream().toList();
+            BlackBlockTopper.CREATIVE_ITEMS_FLATTENED = item_list;
+            INSTANCE = new CreativeItemTable(item_list);
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Forget the current table, because the creative items have changed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void invalidate() {
+        INSTANCE = null;
+        BlackBlockTopper.CREATIVE_ITEMS_FLATTENED = null;
+    }
+}
@@ -0,0 +1,97 @@
+package rocks.blackblock.topper.creative;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import rocks.blackblock.topper.screen.SortCriteria;
+import rocks.blackblock.topper.screen.SortOrder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Prebuilt creative screen pages that are shared between all players.
+ * The default & alphabetical views don't depend on who is looking, so every page of them is only sorted & built once
+ * per creative item table. The cache is dropped as soon as the table is rebuilt because of a late registration.
+ *
+ * The stacks on a cached page are shared, and must never be modified: they are copied when a player takes one.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class CreativePageCache {
+
+    public static final int SLOTS_PER_PAGE = 36;
+
+    private static final HashMap<Key, Page> PAGES = new HashMap<>();
+    private static CreativeItemTable TABLE = null;
+
+    private record Key(CreativeTab tab, SortCriteria criteria, SortOrder order, int page) {}
+
+    /**
+     * A single page of item stacks, together with the amount of pages in its view.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public record Page(List<ItemStack> stacks, int page_count) {}
+
+    /**
+     * Can pages with the given criteria be shared between players?
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static boolean isShared(SortCriteria criteria) {
+        return criteria == SortCriteria.DEFAULT || criteria == SortCriteria.ALPHABETICAL;
+    }
+
+    /**
+     * Get a shared page, building all pages of its view if they aren't cached yet.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static Page get(CreativeTab tab, SortCriteria criteria, SortOrder order, int page) {
+        // Drop everything once the item table has been rebuilt.
+        CreativeItemTable table = CreativeItemTable.get();
+        if (TABLE != table) {
+            PAGES.clear();
+            TABLE = table;
+        }
+
+        Page cached = PAGES.get(new Key(tab, criteria, order, page));
+        if (cached != null) return cached;
+
+        // Sort the view once, and build all of its pages.
+        List<Item> items = table.getTabItems(tab);
+        criteria.sort(items, order, null);
+        int page_count = getPageCount(items.size());
+        for (int i = 1; i <= page_count; i++)
+            PAGES.put(new Key(tab, criteria, order, i), create(items, i));
+
+        // Pages outside of the view are simply empty, and aren't worth caching.
+        cached = PAGES.get(new Key(tab, criteria, order, page));
+        return cached != null ? cached : create(items, page);
+    }
+
+    /**
+     * Build a page of the given, already sorted items.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static Page create(List<Item> items, int page) {
+        int start = Math.min((page - 1) * SLOTS_PER_PAGE, items.size());
+        int end = Math.min(start + SLOTS_PER_PAGE, items.size());
+
+        List<ItemStack> stacks = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++)
+            stacks.add(new ItemStack(items.get(i)));
+        return new Page(List.copyOf(stacks), getPageCount(items.size()));
+    }
+
+    private static int getPageCount(int item_count) {
+        return (int) Math.ceil(item_count / (double) SLOTS_PER_PAGE);
+    }
+}
@@ -8,7 +8,6 @@ import rocks.blackblock.screenbuilder.BBSB;
 import rocks.blackblock.screenbuilder.ScreenBuilder;
 import rocks.blackblock.screenbuilder.interfaces.SlotEventListener;
 import rocks.blackblock.screenbuilder.slots.ButtonWidgetSlot;
-import rocks.blackblock.topper.BlackBlockTopper;
 import rocks.blackblock.topper.screen.ItemBrowsingScreen;
 import rocks.blackblock.topper.screen.SortCriteria;
 import rocks.blackblock.topper.screen.SortOrder;
@@ -31,12 +30,24 @@ public class CreativeScreen extends ItemBrowsingScreen {
     private CreativeTab selected_tab = CreativeTab.ALL;
     private SortCriteria sort_criteria = SortCriteria.DEFAULT;
     private SortOrder sort_order = SortOrder.DESCENDING;
+    private String search_query = null;
 
     public CreativeScreen(ServerPlayerEntity player) {
         super();
         this.player = player;
     }
 
+    /**
+     * Open the creative screen in search mode, showing the items matching the query in ranked order.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public CreativeScreen(ServerPlayerEntity player, String search_query) {
+        this(player);
+        this.search_query = search_query;
+    }
+
     /**
      * Create filter lists.
      *
@@ -69,20 +80,12 @@ public class CreativeScreen extends ItemBrowsingScreen {
      * @since    0.1.0
      */
     private List<Item> getItems() {
-        // If all items does not yet exist, make it.
-        if (BlackBlockTopper.CREATIVE_ITEMS_FLATTENED == null)
-            BlackBlockTopper.CREATIVE_ITEMS_FLATTENED = BlackBlockTopper.CREATIVE_ITEMS.values().stream().toList();
-
-        // If we're on the all tab, just return all items.
-        ArrayList<Item> returned_items = new ArrayList<>();
-        if (selected_tab == CreativeTab.ALL) {
-            returned_items.addAll(BlackBlockTopper.CREATIVE_ITEMS_FLATTENED);
-
-        // Otherwise, filter based on the tab.
-        } else {
-            ArrayList<Item> filter = TAB_FILTERS.get(selected_tab);
-            BlackBlockTopper.CREATIVE_ITEMS_FLATTENED.forEach(item -> { if (filter.contains(item)) { returned_items.add(item); } });
-        }
+        // Get the search results, or the items of the selected tab. Both come from indexes built once per creative item table.
+        List<Item> returned_items;
+        if (this.search_query != null)
+            returned_items = CreativeItemTable.get().getSearchIndex().search(this.search_query);
+        else
+            returned_items = CreativeItemTable.get().getTabItems(this.selected_tab);
 
         // Implement sort criteria & return.
         this.sort_criteria.sort(returned_items, this.sort_order, this.player);
@@ -99,7 +102,7 @@ public class CreativeScreen extends ItemBrowsingScreen {
         // Add tab button.
         ButtonWidgetSlot tab_button = sb.addButton(button_index);
         tab_button.setTitle(tab.asString());
-        if (selected_tab == tab)
+        if (selected_tab == tab && this.search_query == null)
             tab_button.setBackgroundType(ButtonWidgetSlot.BackgroundType.TOP_TAB_SELECTED);
         else
             tab_button.setBackgroundType(ButtonWidgetSlot.BackgroundType.TOP_TAB_UNSELECTED);
@@ -107,8 +110,8 @@ public class CreativeScreen extends ItemBrowsingScreen {
 
         // Set up tab button listeners. All 3 buttons have the same function.
         SlotEventListener listener = (screen, slot) -> {
-            this.selected_tab = tab; this.page = 1;
-            screen.replaceScreen(this);
+            this.selected_tab = tab; this.page = 1; this.search_query = null;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         };
         tab_button.addLeftClickListener(listener);
         tab_button.addRightClickListener(listener);
@@ -133,13 +136,15 @@ public class CreativeScreen extends ItemBrowsingScreen {
         // Set criteria button behavior. Middle click and left click have the same function.
         SlotEventListener left_click_criteria_behavior = (screen, slot) -> {
             do { this.sort_criteria = sort_criteria.next(); } while (!this.selected_tab.getAllowedSortCriteria().contains(this.sort_criteria));
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         };
         criteria_button.addLeftClickListener(left_click_criteria_behavior);
         criteria_button.addMiddleClickListener(left_click_criteria_behavior);
         criteria_button.addRightClickListener((screen, slot) -> {
             do { this.sort_criteria = sort_criteria.prev(); } while (!this.selected_tab.getAllowedSortCriteria().contains(this.sort_criteria));
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         });
 
         // Add order button.
@@ -151,17 +156,24 @@ public class CreativeScreen extends ItemBrowsingScreen {
         // Set order button behavior. Middle click and left click have the same function.
         SlotEventListener left_click_order_behavior = (screen, slot) -> {
             this.sort_order = sort_order.next();
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         };
         order_button.addLeftClickListener(left_click_order_behavior);
         order_button.addMiddleClickListener(left_click_order_behavior);
         order_button.addRightClickListener((screen, slot) -> {
             this.sort_order = sort_order.prev();
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         });
     }
 
 
+    @Override
+    protected Object getLayoutState() {
+        return Arrays.asList(this.selected_tab, this.sort_criteria, this.sort_order, this.search_query);
+    }
+
     /**
      * Create the actual Screen instance.
      * Most of this code is lifted straight from v1 of the CreativeScreen in Blackblock Tools.
@@ -175,7 +187,7 @@ public class CreativeScreen extends ItemBrowsingScreen {
         ScreenBuilder sb = this.createBasicScreenBuilder("creative_input");
         sb.useFontTexture(new Identifier("blackblock", "gui/bb_creative"));
         sb.setCloneSlots(false);
-        this.setDisplayName("Blackblock Creative");
+        this.setDisplayName(this.search_query == null ? "Blackblock Creative" : "Search: " + this.search_query);
 
         // Add tab buttons.
         this.addTabButton(sb, 0, CreativeTab.BUILDING_BLOCKS);
@@ -191,83 +203,100 @@ public class CreativeScreen extends ItemBrowsingScreen {
         this.addSortButtons(sb, 45);
 
         // Add items.
-        this.addItems(sb);
+        this.addGrid(sb);
         return sb;
     }
 
+    @Override
+    protected int getGridSize() {
+        return CreativePageCache.SLOTS_PER_PAGE;
+    }
+
+    @Override
+    protected int getGridSlot(int index) {
+        return index + 9;
+    }
+
     /**
-     * Add the items to the screen!
+     * Add the listeners of an item slot.
+     * The slot's stack may be shared, so it is only ever copied.
      *
      * @author  Jade Godwin         <icanhasabanana@gmail.com>
      * @since    0.1.1
      */
-    private void addItems(ScreenBuilder sb) {
-        // Get selected items.
-        List<Item> all_selected_items = this.getItems();
+    @Override
+    protected void setUpGridButton(ButtonWidgetSlot button, int index) {
+        // Add listener to left click.
+        button.addLeftClickListener((screen, slot) -> {
+            // If player clicks on tile with an item in hand already, delete it.
+            ItemStack old_stack = screen.getCursorStack();
+            if (old_stack != null && !old_stack.isEmpty()) {
+                old_stack.setCount(0);
+                return;
+            }
+
+            // Give them the new stack.
+            ItemStack stack = this.getGridStack(index);
+            if (stack.isEmpty()) return;
+            ItemStack new_stack = stack.copy();
+            if (screen.isPressingShift())
+                new_stack.setCount(new_stack.getMaxCount());
+            screen.setCursorStack(new_stack);
+        });
 
-        // Get page slot info.
-        int slots_per_page = 36;
-        int item_count = all_selected_items.size();
-        int start = (this.page - 1) * slots_per_page;
-        int end = Math.min(start + slots_per_page, item_count);
+        // Add listener to right click.
+        button.addRightClickListener((screen, slot) -> {
+            // If player clicks on tile with an item in hand already, decrease its count by 1.
+            ItemStack old_stack = screen.getCursorStack();
+            if (old_stack != null && !old_stack.isEmpty()) {
+                old_stack.decrement(1);
+                return;
+            }
+
+            // Give them the new stack.
+            ItemStack stack = this.getGridStack(index);
+            if (stack.isEmpty()) return;
+            ItemStack new_stack = stack.copy();
+            if (screen.isPressingShift())
+                new_stack.setCount(new_stack.getMaxCount());
+            screen.setCursorStack(new_stack);
+        });
 
-        // Get subset of items.
-        List<Item> items = all_selected_items.subList(start, end);
+        // Add listener to middle click.
+        button.addMiddleClickListener((screen, slot) -> {
+            // If player clicks on tile with an item in hand already, return.
+            ItemStack old_stack = screen.getCursorStack();
+            if (old_stack != null && !old_stack.isEmpty()) return;
+
+            // Give them the new stack with the max count already there.
+            ItemStack stack = this.getGridStack(index);
+            if (stack.isEmpty()) return;
+            ItemStack new_stack = stack.copy();
+            new_stack.setCount(new_stack.getMaxCount());
+            screen.setCursorStack(new_stack);
+        });
+    }
 
-        // Fill the screen's slots.
-        for (int i = 0; i < items.size(); i++) {
-            // Create button stack.
-            ItemStack stack = new ItemStack(items.get(i));
-            ButtonWidgetSlot button = sb.addButton(i + 9);
-            button.setStack(stack);
-
-            // Add listener to left click.
-            button.addLeftClickListener((screen, slot) -> {
-                // If player clicks on tile with an item in hand already, delete it.
-                ItemStack old_stack = screen.getCursorStack();
-                if (old_stack != null && !old_stack.isEmpty()) {
-                    old_stack.setCount(0);
-                    return;
-                }
-
-                // Give them the new stack.
-                ItemStack new_stack = stack.copy();
-                if (screen.isPressingShift())
-                    new_stack.setCount(new_stack.getMaxCount());
-                screen.setCursorStack(new_stack);
-            });
-
-            // Add listener to right click.
-            button.addRightClickListener((screen, slot) -> {
-                // If player clicks on tile with an item in hand already, decrease its count by 1.
-                ItemStack old_stack = screen.getCursorStack();
-                if (old_stack != null && !old_stack.isEmpty()) {
-                    old_stack.decrement(1);
-                    return;
-                }
-
-                // Give them the new stack.
-                ItemStack new_stack = stack.copy();
-                if (screen.isPressingShift())
-                    new_stack.setCount(new_stack.getMaxCount());
-                screen.setCursorStack(new_stack);
-            });
-
-            // Add listener to middle click.
-            button.addMiddleClickListener((screen, slot) -> {
-                // If player clicks on tile with an item in hand already, return.
-                ItemStack old_stack = screen.getCursorStack();
-                if (old_stack != null && !old_stack.isEmpty()) return;
-
-                // Give them the new stack with the max count already there.
-                ItemStack new_stack = stack.copy();
-                new_stack.setCount(new_stack.getMaxCount());
-                screen.setCursorStack(new_stack);
-            });
-        }
+    /**
+     * Put the current page of items in the grid.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.1.1
+     */
+    @Override
+    protected int fillGrid() {
+        // Get the page of stacks. Views that are the same for every player come from the shared cache.
+        CreativePageCache.Page page;
+        if (this.search_query == null && CreativePageCache.isShared(this.sort_criteria))
+            page = CreativePageCache.get(this.selected_tab, this.sort_criteria, this.sort_order, this.page);
+        else
+            page = CreativePageCache.create(this.getItems(), this.page);
 
-        // Add pagination!
-        this.setUpPagination(sb, (int) Math.ceil(item_count / (double) slots_per_page));
+        // Fill the screen's slots.
+        List<ItemStack> stacks = page.stacks();
+        for (int i = 0; i < stacks.size(); i++)
+            this.setGridEntry(i, stacks.get(i));
+        return page.page_count();
     }
 
     /**
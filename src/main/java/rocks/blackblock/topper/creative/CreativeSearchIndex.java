@@ -0,0 +1,180 @@
+package rocks.blackblock.topper.creative;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A search index over the names & ids of the creative items.
+ *
+ * Queries of 3 or more characters are answered with a trigram index: only the items that contain every trigram
+ * of the query are checked. Shorter queries go through a sorted list of words, using a binary search for the prefix.
+ * Either way, only candidates are ever looked at, and every name is lowercased only once, when the index is built.
+ *
+ * Results are ranked: exact names first, then names starting with the query, names with a word starting with it,
+ * names containing it and finally ids containing it. Items with the same rank stay in alphabetical order.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class CreativeSearchIndex {
+
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int NAME_CONTAINS = 3;
+    private static final int ID_CONTAINS = 4;
+    private static final int NO_MATCH = -1;
+    private static final long ORDINAL_MASK = (1L << 30) - 1;
+
+    private final CreativeItemTable table;
+    private final String[] names;
+    private final String[] ids;
+    private final Object2ObjectOpenHashMap<String, int[]> trigrams = new Object2ObjectOpenHashMap<>();
+    private final String[] words;
+    private final int[] word_ordinals;
+
+    CreativeSearchIndex(CreativeItemTable table) {
+        int size = table.size();
+        this.table = table;
+        this.names = new String[size];
+        this.ids = new String[size];
+
+        Object2ObjectOpenHashMap<String, IntArrayList> trigram_lists = new Object2ObjectOpenHashMap<>();
+        List<String> word_list = new ArrayList<>();
+        IntArrayList word_ordinal_list = new IntArrayList();
+
+        for (int i = 0; i < size; i++) {
+            Item item = table.getItem(i);
+            this.names[i] = item.getName().getString().toLowerCase();
+            this.ids[i] = Registries.ITEM.getId(item).toString();
+
+            // Add each distinct trigram of the name & id once.
+            ObjectOpenHashSet<String> item_trigrams = new ObjectOpenHashSet<>();
+            addTrigrams(this.names[i], item_trigrams);
+            addTrigrams(this.ids[i], item_trigrams);
+            for (String trigram : item_trigrams)
+                trigram_lists.computeIfAbsent(trigram, key -> new IntArrayList()).add(i);
+
+            // Add the words of the name & the id's path.
+            ObjectOpenHashSet<String> item_words = new ObjectOpenHashSet<>();
+            item_words.addAll(Arrays.asList(this.names[i].split("[^\\p{L}\\p{N}]+")));
+            item_words.addAll(Arrays.asList(Registries.ITEM.getId(item).getPath().split("[^a-z0-9]+")));
+            item_words.remove("");
+            for (String word : item_words) {
+                word_list.add(word);
+                word_ordinal_list.add(i);
+            }
+        }
+
+        // Ordinals were added in ascending order, so the posting lists are already sorted.
+        trigram_lists.forEach((trigram, list) -> this.trigrams.put(trigram, list.toIntArray()));
+
+        // Sort the words, keeping their ordinals alongside.
+        Integer[] order = new Integer[word_list.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> word_list.get(a).compareTo(word_list.get(b)));
+        this.words = new String[order.length];
+        this.word_ordinals = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            this.words[i] = word_list.get(order[i]);
+            this.word_ordinals[i] = word_ordinal_list.getInt(order[i]);
+        }
+    }
+
+    private static void addTrigrams(String value, ObjectOpenHashSet<String> trigrams) {
+        for (int i = 0; i + 3 <= value.length(); i++)
+            trigrams.add(value.substring(i, i + 3));
+    }
+
+    /**
+     * Search for items, returning them in ranked order.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public List<Item> search(String query) {
+        query = query.trim().toLowerCase();
+        if (query.isEmpty()) return new ArrayList<>(this.table.getItems());
+
+        // Rank the candidates, packing the rank, the alphabetical position and the ordinal into one long.
+        int[] candidates = query.length() >= 3 ? this.getTrigramCandidates(query) : this.getWordCandidates(query);
+        long[] ranked = new long[candidates.length];
+        int count = 0;
+        for (int ordinal : candidates) {
+            int rank = this.getRank(ordinal, query);
+            if (rank != NO_MATCH)
+                ranked[count++] = ((long) rank << 60) | ((long) this.table.getAlphabeticalRank(ordinal) << 30) | ordinal;
+        }
+        Arrays.sort(ranked, 0, count);
+
+        List<Item> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            results.add(this.table.getItem((int) (ranked[i] & ORDINAL_MASK)));
+        return results;
+    }
+
+    private int getRank(int ordinal, String query) {
+        String name = this.names[ordinal];
+        if (name.equals(query)) return EXACT;
+        if (name.startsWith(query)) return NAME_PREFIX;
+
+        int index = name.indexOf(query);
+        if (index > 0) return Character.isLetterOrDigit(name.charAt(index - 1)) ? NAME_CONTAINS : WORD_PREFIX;
+        if (this.ids[ordinal].contains(query)) return ID_CONTAINS;
+        return NO_MATCH;
+    }
+
+    // Intersect the posting lists of all trigrams in the query, starting with the shortest one.
+    private int[] getTrigramCandidates(String query) {
+        ObjectOpenHashSet<String> query_trigrams = new ObjectOpenHashSet<>();
+        addTrigrams(query, query_trigrams);
+
+        List<int[]> lists = new ArrayList<>(query_trigrams.size());
+        for (String trigram : query_trigrams) {
+            int[] list = this.trigrams.get(trigram);
+            if (list == null) return new int[0];
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++)
+            result = intersect(result, lists.get(i));
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0, i = 0, j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { result[count++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Find every item with a word starting with the query.
+    private int[] getWordCandidates(String query) {
+        int low = 0, high = this.words.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.words[middle].compareTo(query) < 0) low = middle + 1;
+            else high = middle;
+        }
+
+        // Several words of one item can match, so collect them in a bitset.
+        BitSet ordinals = new BitSet();
+        for (int i = low; i < this.words.length && this.words[i].startsWith(query); i++)
+            ordinals.set(this.word_ordinals[i]);
+        return ordinals.stream().toArray();
+    }
+}
@@ -1,34 +1,87 @@
 package rocks.blackblock.topper.mixin;
 
-import com.google.common.collect.Sets;
-import net.minecraft.entity.LivingEntity;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.stat.ServerStatHandler;
 import net.minecraft.stat.Stat;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
-import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
-import rocks.blackblock.topper.BlackBlockTopper;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import rocks.blackblock.topper.statistics.ItemStatCache;
+import rocks.blackblock.topper.statistics.ItemStatCacheHolder;
+import rocks.blackblock.topper.statistics.ServerStatisticsComponent;
 
 import java.util.Set;
 
 @Mixin(ServerStatHandler.class)
-public class ServerStatHandlerMixin {
+public class ServerStatHandlerMixin implements ItemStatCacheHolder {
+
+    // Whether a stat can be sent to vanilla clients, remembered per stat instance.
+    @Unique private static final Reference2BooleanOpenHashMap<Stat<?>> VANILLA_SYNCABLE = new Reference2BooleanOpenHashMap<>();
 
     @Shadow @Final private Set<Stat<?>> pendingStats;
 
-    @Inject(method="takePendingStats", at = @At("HEAD"))
-    private void takePendingStatsMixin(CallbackInfoReturnable<Set<Stat<?>>> cir) {
-        // Create a copy of the pendingStats list.
-        Set<Stat<?>> server_stats = Sets.newHashSet();
-        server_stats.addAll(this.pendingStats);
-
-        // Iterate through and, for any stat that doesn't have ":minecraft." in it, remove that stat from the pending stats list.
-        server_stats.forEach(stat -> {
-            if (!stat.getName().contains(":minecraft."))
-                this.pendingStats.remove(stat);
-        });
+    // The item stats shown on the Statistics screen, created the first time the screen needs them.
+    @Unique private ItemStatCache item_stat_cache = null;
+
+    @Override
+    public ItemStatCache blackblock$getItemStatCache() {
+        if (this.item_stat_cache == null)
+            this.item_stat_cache = new ItemStatCache((ServerStatHandler) (Object) this);
+        return this.item_stat_cache;
+    }
+
+    /**
+     * Add the change to the server-wide totals, while the old value is still known.
+     */
+    @Inject(method="setStat", at = @At("HEAD"))
+    private void setStatTotalsMixin(PlayerEntity player, Stat<?> stat, int value, CallbackInfo ci) {
+        if (ServerStatisticsComponent.isTracked(stat))
+            ServerStatisticsComponent.getInstance().onStatChanged(player, stat, ((ServerStatHandler) (Object) this).getStat(stat), value);
+    }
+
+    /**
+     * Keep the item stat cache up to date.
+     */
+    @Inject(method="setStat", at = @At("TAIL"))
+    private void setStatMixin(PlayerEntity player, Stat<?> stat, int value, CallbackInfo ci) {
+        if (this.item_stat_cache != null)
+            this.item_stat_cache.onStatSet(stat, value);
+    }
+
+    /**
+     * Only queue stats the client knows about, so modded stats never end up in the pending list.
+     */
+    @Redirect(method="setStat", at = @At(value = "INVOKE", target = "Ljava/util/Set;add(Ljava/lang/Object;)Z"))
+    private boolean addPendingStatMixin(Set<Stat<?>> pending_stats, Object stat) {
+        if (!isVanillaSyncable((Stat<?>) stat)) return false;
+        return pending_stats.add((Stat<?>) stat);
+    }
+
+    /**
+     * Sending the full stat list queues every stat at once, so drop the modded ones again.
+     */
+    @Inject(method="updateStatSet", at = @At("TAIL"))
+    private void updateStatSetMixin(CallbackInfo ci) {
+        this.pendingStats.removeIf(stat -> !isVanillaSyncable(stat));
+    }
+
+    /**
+     * Only stats with a "minecraft" value (like "minecraft.custom:minecraft.jump") are known to vanilla clients.
+     * The name check only happens the first time a stat is seen.
+     */
+    @Unique
+    private static boolean isVanillaSyncable(Stat<?> stat) {
+        synchronized (VANILLA_SYNCABLE) {
+            if (VANILLA_SYNCABLE.containsKey(stat)) return VANILLA_SYNCABLE.getBoolean(stat);
+            boolean syncable = stat.getName().contains(":minecraft.");
+            VANILLA_SYNCABLE.put(stat, syncable);
+            return syncable;
+        }
     }
 }
@@ -1,16 +1,172 @@
 package rocks.blackblock.topper.screen;
 
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.ScreenHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.MutableText;
 import rocks.blackblock.screenbuilder.ScreenBuilder;
 import rocks.blackblock.screenbuilder.inputs.EmptyInput;
 import rocks.blackblock.screenbuilder.interfaces.WidgetDataProvider;
+import rocks.blackblock.screenbuilder.slots.ButtonWidgetSlot;
 import rocks.blackblock.screenbuilder.widgets.PaginationWidget;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
 public abstract class ItemBrowsingScreen extends EmptyInput implements WidgetDataProvider {
 
     protected ServerPlayerEntity player;
     protected int page = 1;
 
+    // The item buttons of the current screen & the stacks they show.
+    // The screens don't clone their slots, so these are the same slots the open screen handler uses.
+    private ButtonWidgetSlot[] grid_buttons = new ButtonWidgetSlot[0];
+    private ItemStack[] grid_stacks = new ItemStack[0];
+
+    // The layout & page count the current screen was built with.
+    private Object built_layout_state = null;
+    private int built_page_count = 0;
+
+    /**
+     * Get everything that is drawn around the item grid, like the selected tab & sorting buttons.
+     * Changing any of it means the whole screen has to be rebuilt.
+     * The returned value has to implement equals.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected abstract Object getLayoutState();
+
+    /**
+     * Get the amount of item slots on a page.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected abstract int getGridSize();
+
+    /**
+     * Get the screen slot of the item with the given index on the page.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected abstract int getGridSlot(int index);
+
+    /**
+     * Add the click listeners of an item button.
+     * The buttons are reused between pages, so listeners have to look up the current entry with the index.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected abstract void setUpGridButton(ButtonWidgetSlot button, int index);
+
+    /**
+     * Put the entries of the current page in the grid using setGridEntry, starting from the first slot.
+     * Returns the amount of pages.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected abstract int fillGrid();
+
+    /**
+     * Update the buttons around the item grid that show live data, without changing the layout.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected void updateLayout() {}
+
+    /**
+     * Show a stack in the item slot with the given index.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected void setGridEntry(int index, ItemStack stack) {
+        this.grid_stacks[index] = stack;
+        this.grid_buttons[index].setStack(stack);
+    }
+
+    /**
+     * Show a stack with the given lore in the item slot with the given index.
+     * The lore is always set, so an empty list clears the lore of the previous entry.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected void setGridEntry(int index, ItemStack stack, List<MutableText> lore) {
+        this.setGridEntry(index, stack);
+        this.grid_buttons[index].setLore(lore);
+    }
+
+    /**
+     * Get the stack shown in the item slot with the given index.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected ItemStack getGridStack(int index) {
+        return index < this.grid_stacks.length ? this.grid_stacks[index] : ItemStack.EMPTY;
+    }
+
+    /**
+     * Add the item grid & pagination to the screen.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected void addGrid(ScreenBuilder sb) {
+        // Add a button for every item slot, even the empty ones, so later pages can reuse them.
+        this.grid_buttons = new ButtonWidgetSlot[this.getGridSize()];
+        this.grid_stacks = new ItemStack[this.grid_buttons.length];
+        for (int i = 0; i < this.grid_buttons.length; i++) {
+            this.grid_buttons[i] = sb.addButton(this.getGridSlot(i));
+            this.setUpGridButton(this.grid_buttons[i], i);
+        }
+
+        // Fill the buttons & remember what the screen was built with.
+        this.built_page_count = this.fillPage();
+        this.built_layout_state = this.getLayoutState();
+
+        // Add pagination!
+        this.setUpPagination(sb, this.built_page_count);
+    }
+
+    /**
+     * Update the open screen after a click.
+     * When only the items changed, the existing buttons get the new entries and the handler sends just the slots that changed.
+     * Returns true when the layout changed and the whole screen has to be replaced instead.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected boolean updateGrid(ScreenHandler handler) {
+        // Anything drawn around the grid is part of the title texture, which needs a new screen.
+        if (!Objects.equals(this.getLayoutState(), this.built_layout_state)) return true;
+
+        // The pagination widget has to be rebuilt when the amount of pages changed.
+        if (this.fillPage() != this.built_page_count) return true;
+
+        // Send the changed slots.
+        this.updateLayout();
+        handler.sendContentUpdates();
+        return false;
+    }
+
+    /**
+     * Clear the item grid & fill it with the current page.
+     */
+    private int fillPage() {
+        Arrays.fill(this.grid_stacks, ItemStack.EMPTY);
+        for (ButtonWidgetSlot button : this.grid_buttons)
+            button.setStack(ItemStack.EMPTY);
+        return this.fillGrid();
+    }
+
     /**
      * Set up pagination.
      *
@@ -24,9 +180,9 @@ public abstract class ItemBrowsingScreen extends EmptyInput implements WidgetDat
         pagination.setSlotIndex(50);
         pagination.setMaxValue(max_page_count);
 
-        // On a page change, replace the whole screen.
+        // On a page change, put the new page in the existing buttons.
         pagination.setOnChangeListener((texturedScreenHandler, widget) -> {
-            texturedScreenHandler.replaceScreen(this);
+            if (this.updateGrid(texturedScreenHandler)) texturedScreenHandler.replaceScreen(this);
         });
 
         // Add paginator and return.
@@ -1,5 +1,6 @@
 package rocks.blackblock.topper.screen;
 
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -9,20 +10,25 @@ import net.minecraft.stat.Stats;
 import net.minecraft.util.StringIdentifiable;
 import rocks.blackblock.screenbuilder.BBSB;
 import rocks.blackblock.screenbuilder.textures.IconTexture;
+import rocks.blackblock.topper.creative.CreativeItemTable;
+import rocks.blackblock.topper.statistics.ItemStatCache;
+import rocks.blackblock.topper.statistics.ItemStatCacheHolder;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 public enum SortCriteria implements StringIdentifiable {
 
-    DEFAULT("Default", null, null),
-    ALPHABETICAL("Alphabetical", BBSB.SORT_ALPHABETICAL, null),
-    OWNER("Owner", BBSB.SORT_OWNER, null),
-    MINED("Times Mined", BBSB.SORT_MINED, null),
-    BROKEN("Times Broken", BBSB.SORT_BROKEN, Stats.BROKEN),
-    CRAFTED("Times Crafted", BBSB.SORT_CRAFTED, Stats.CRAFTED),
-    USED("Times Used", BBSB.SORT_USED, Stats.USED),
-    PICKED_UP("Picked Up", BBSB.SORT_PICKED_UP, Stats.PICKED_UP),
-    DROPPED("Dropped", BBSB.SORT_DROPPED, Stats.DROPPED);
+    DEFAULT("Default", null, null, -1),
+    ALPHABETICAL("Alphabetical", BBSB.SORT_ALPHABETICAL, null, -1),
+    OWNER("Owner", BBSB.SORT_OWNER, null, -1),
+    MINED("Times Mined", BBSB.SORT_MINED, null, CreativeItemTable.MINED),
+    BROKEN("Times Broken", BBSB.SORT_BROKEN, Stats.BROKEN, CreativeItemTable.BROKEN),
+    CRAFTED("Times Crafted", BBSB.SORT_CRAFTED, Stats.CRAFTED, CreativeItemTable.CRAFTED),
+    USED("Times Used", BBSB.SORT_USED, Stats.USED, CreativeItemTable.USED),
+    PICKED_UP("Picked Up", BBSB.SORT_PICKED_UP, Stats.PICKED_UP, CreativeItemTable.PICKED_UP),
+    DROPPED("Dropped", BBSB.SORT_DROPPED, Stats.DROPPED, CreativeItemTable.DROPPED);
 
     // Store all values in order
     public static final SortCriteria[] values = new SortCriteria[]{
@@ -32,9 +38,10 @@ public enum SortCriteria implements StringIdentifiable {
     private final String name;
     private final IconTexture icon;
     private final StatType<Item> statType;
+    private final int itemStatColumn;
 
-    private SortCriteria(String name, IconTexture icon, StatType<Item> statType) {
-        this.name = name; this.icon = icon; this.statType = statType;
+    private SortCriteria(String name, IconTexture icon, StatType<Item> statType, int itemStatColumn) {
+        this.name = name; this.icon = icon; this.statType = statType; this.itemStatColumn = itemStatColumn;
     }
     public String toString() { return this.asString(); }
     public String asString() { return this.name; }
@@ -43,50 +50,171 @@ public enum SortCriteria implements StringIdentifiable {
     public SortCriteria next() { return values[(Arrays.asList(values).indexOf(this) + 1) % values.length]; }
     public SortCriteria prev() { return values[(Arrays.asList(values).indexOf(this) + values.length - 1) % values.length]; }
 
+    /**
+     * Sort creative items.
+     * Every item's sort key is computed exactly once, then the items are sorted by those primitive keys.
+     * Descending is the natural order of each criteria (A to Z, highest stat first), ascending is its opposite.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
     public void sort(List<Item> items, SortOrder sortOrder, ServerPlayerEntity player) {
-        // Alphabet sort
+        CreativeItemTable table = CreativeItemTable.get();
+
+        // Items outside the creative table have no cached rank, so those lists are sorted by their names.
         if (this == SortCriteria.ALPHABETICAL) {
-            items.sort(Comparator.comparing(item -> item.getName().getString().toLowerCase()));
+            for (Item item : items) {
+                if (table.getOrdinal(item) == -1) {
+                    this.sort(items, sortOrder, index -> items.get(index).getName().getString().toLowerCase());
+                    return;
+                }
+            }
+        }
+
+        int[] keys = new int[items.size()];
+
+        // Alphabet sort, using the cached ranks of the creative items.
+        if (this == SortCriteria.ALPHABETICAL) {
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = table.getAlphabeticalRank(table.getOrdinal(items.get(i)));
 
         // Mined stat, being the only block stat, gets its own special part.
         } else if (this == SortCriteria.MINED) {
-            items.sort(Comparator.comparing(item ->
-                item instanceof BlockItem blockItem ? -player.getStatHandler().getStat(Stats.MINED, blockItem.getBlock()) : 1
-            ));
-
-        // For all other stats, attempt to sort by the stat.
-        } else if (this.statType != null) {
-            items.sort(Comparator.comparing(item -> -player.getStatHandler().getStat(this.statType, item)));
+            ItemStatCache cache = ((ItemStatCacheHolder) player.getStatHandler()).blackblock$getItemStatCache();
+            for (int i = 0; i < keys.length; i++) {
+                int ordinal = table.getOrdinal(items.get(i));
+                keys[i] = ordinal != -1 && table.isBlock(ordinal) ? -cache.get(ordinal, this.itemStatColumn) : 1;
+            }
+
+        // For all other stats, sort by the player's cached item stats.
+        } else if (this.itemStatColumn != -1) {
+            ItemStatCache cache = ((ItemStatCacheHolder) player.getStatHandler()).blackblock$getItemStatCache();
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = -cache.get(items.get(i), this.itemStatColumn);
+
+        // Anything else keeps the current order.
+        } else {
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = i;
         }
 
-        // Final reversal if we're doing ascending.
-        if (sortOrder == SortOrder.ASCENDING)
-            Collections.reverse(items);
+        sortByKeys(items, keys, sortOrder);
     }
 
+    /**
+     * Sort item stacks.
+     * Like the item sort, every key is computed once per stack instead of once per comparison.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
     public void sort(List<ItemStack> stacks, ServerPlayerEntity player, SortOrder sortOrder) {
         // Alphabet sort
         if (this == SortCriteria.ALPHABETICAL) {
-            stacks.sort(Comparator.comparing(stack -> stack.getName().getString().toLowerCase()));
+            this.sort(stacks, sortOrder, i -> stacks.get(i).getName().getString().toLowerCase());
+            return;
 
-        // Owner sort. First, sort alphabetical, THEN by owner.
+        // Owner sort. Stats without an owner go last, and stats with the same owner are sorted by name.
         } else if (this == SortCriteria.OWNER) {
-            stacks.sort(Comparator.comparing(stack -> stack.getName().getString()));
-            stacks.sort(Comparator.comparing(stack -> stack.getNbt().getString("custom_stat_owner").isEmpty() ? "zzzzzzzzzzzzzzzz" : stack.getNbt().getString("custom_stat_owner")));
+            this.sort(stacks, sortOrder, i -> {
+                String owner = stacks.get(i).getNbt() == null ? "" : stacks.get(i).getNbt().getString("custom_stat_owner");
+                return (owner.isEmpty() ? "zzzzzzzzzzzzzzzz" : owner) + '\u0000' + stacks.get(i).getName().getString();
+            });
+            return;
+        }
+
+        CreativeItemTable table = CreativeItemTable.get();
+        int[] keys = new int[stacks.size()];
 
         // Mined stat, being the only block stat, gets its own special part.
-        } else if (this == SortCriteria.MINED) {
-            stacks.sort(Comparator.comparing(stack ->
-                    stack.getItem() instanceof BlockItem blockItem ? -player.getStatHandler().getStat(Stats.MINED, blockItem.getBlock()) : 1
-            ));
+        if (this == SortCriteria.MINED) {
+            for (int i = 0; i < keys.length; i++) {
+                Item item = stacks.get(i).getItem();
+                int ordinal = table.getOrdinal(item);
+                if (ordinal != -1) keys[i] = table.isBlock(ordinal) ? -player.getStatHandler().getStat(table.getStat(ordinal, this.itemStatColumn)) : 1;
+                else keys[i] = item instanceof BlockItem blockItem ? -player.getStatHandler().getStat(Stats.MINED, blockItem.getBlock()) : 1;
+            }
 
         // For all other stats, attempt to sort by the stat.
         } else if (this.statType != null) {
-            stacks.sort(Comparator.comparing(stack -> -player.getStatHandler().getStat(this.statType, stack.getItem())));
+            for (int i = 0; i < keys.length; i++) {
+                Item item = stacks.get(i).getItem();
+                int ordinal = table.getOrdinal(item);
+                if (ordinal != -1) keys[i] = -player.getStatHandler().getStat(table.getStat(ordinal, this.itemStatColumn));
+                else keys[i] = -player.getStatHandler().getStat(this.statType, item);
+            }
+
+        // Anything else keeps the current order.
+        } else {
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = i;
         }
 
-        // Final reversal if we're doing ascending.
-        if (sortOrder == SortOrder.ASCENDING)
-            Collections.reverse(stacks);
+        sortByKeys(stacks, keys, sortOrder);
+    }
+
+    /**
+     * Sort entries that can only be sorted by name, like totals & leaderboards.
+     * Alphabetical sorting uses the given name keys, any other criteria keeps the current order.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public <T> void sort(List<T> entries, Function<T, String> name_function, SortOrder sortOrder) {
+        if (this == SortCriteria.ALPHABETICAL) {
+            this.sort(entries, sortOrder, i -> name_function.apply(entries.get(i)));
+            return;
+        }
+
+        int[] keys = new int[entries.size()];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = i;
+        sortByKeys(entries, keys, sortOrder);
+    }
+
+    /**
+     * Sort a list by string keys, computing each element's key exactly once.
+     */
+    private <T> void sort(List<T> list, SortOrder sortOrder, IntFunction<String> key_function) {
+        String[] keys = new String[list.size()];
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key_function.apply(i);
+            order[i] = i;
+        }
+
+        int direction = sortOrder == SortOrder.ASCENDING ? -1 : 1;
+        IntArrays.mergeSort(order, (a, b) -> {
+            int result = keys[a].compareTo(keys[b]);
+            return result != 0 ? result * direction : Integer.compare(a, b);
+        });
+        applyOrder(list, order);
+    }
+
+    /**
+     * Sort a list by int keys, lowest first (or highest first when ascending).
+     * Each key is packed together with the element's position into a long, so ties keep their current order
+     * and the whole sort runs on primitives.
+     */
+    private static <T> void sortByKeys(List<T> list, int[] keys, SortOrder sortOrder) {
+        boolean reverse = sortOrder == SortOrder.ASCENDING;
+        long[] packed = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long key = reverse ? -(long) keys[i] : keys[i];
+            key = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, key));
+            packed[i] = (key << 32) | i;
+        }
+        Arrays.sort(packed);
+
+        int[] order = new int[packed.length];
+        for (int i = 0; i < packed.length; i++)
+            order[i] = (int) packed[i];
+        applyOrder(list, order);
+    }
+
+    private static <T> void applyOrder(List<T> list, int[] order) {
+        List<T> original = new ArrayList<>(list);
+        for (int i = 0; i < order.length; i++)
+            list.set(i, original.get(order[i]));
     }
 }
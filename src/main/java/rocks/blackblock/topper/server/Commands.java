@@ -10,6 +10,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.scoreboard.ScoreHolder;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
@@ -19,8 +20,12 @@ import rocks.blackblock.core.commands.CommandLeaf;
 import rocks.blackblock.core.statistics.StatFormat;
 import rocks.blackblock.topper.creative.CreativeScreen;
 import rocks.blackblock.topper.statistics.CustomStatistic;
+import rocks.blackblock.topper.statistics.CustomStatisticMutation;
 import rocks.blackblock.topper.statistics.CustomStatisticPertainability;
 import rocks.blackblock.topper.statistics.CustomStatisticsComponent;
+import rocks.blackblock.topper.statistics.CustomStatisticsStorage;
+import rocks.blackblock.topper.statistics.ScoreHistory;
+import rocks.blackblock.topper.statistics.ScoreOperation;
 import rocks.blackblock.topper.statistics.StatisticsScreen;
 
 import java.util.*;
@@ -29,6 +34,8 @@ public class Commands {
 
     private static final CommandLeaf BLACKBLOCK = CommandCreator.getPermissionRoot("blackblock", "blackblock.mod");
     private static final CommandLeaf BBSTATS = CommandCreator.getRoot("bbstats");
+    private static final int SCORES_PER_PAGE = 10;
+    private static final int MAX_TOP_SCORES = 100;
 
     public static void register() {
         // Creative command
@@ -42,6 +49,7 @@ public class Commands {
     /**
      * Add creative commands.
      * Usage: /blackblock creative
+     * Usage: /blackblock creative <query>
      *
      * @author   Jelle De Loecker   <jelle@elevenways.be>
      * @since    0.1.0
@@ -58,12 +66,23 @@ public class Commands {
             player.openHandledScreen(new CreativeScreen(player));
             return 1;
         });
+
+        // Open the screen in search mode.
+        CommandLeaf query_leaf = creative_leaf.getChild("query");
+        query_leaf.setType(StringArgumentType.greedyString());
+        query_leaf.onExecute(context -> {
+            ServerPlayerEntity player = context.getSource().getPlayer();
+            if (player == null) return 0;
+            player.openHandledScreen(new CreativeScreen(player, StringArgumentType.getString(context, "query")));
+            return 1;
+        });
     }
 
     /**
      * Add statistics commands.
      * Usage: /bbstats
      * Usage: /bbstats gui
+     * Usage: /bbstats search <query>
      *
      * @author   Jade Godwin          <icanhasabanana@gmail.com>
      * @since    0.2.0
@@ -94,9 +113,20 @@ public class Commands {
             return 1;
         });
 
+        // Search the item statistics.
+        CommandLeaf search_query = BBSTATS.getChild("search").getChild("query");
+        search_query.setType(StringArgumentType.greedyString());
+        search_query.onExecute(context -> {
+            ServerPlayerEntity player = context.getSource().getPlayer();
+            if (player == null) return 0;
+            player.openHandledScreen(new StatisticsScreen(player, StringArgumentType.getString(context, "query")));
+            return 1;
+        });
+
         // Add commands under the larger branches.
         addStatisticsPlayersCommands();
         addStatisticsStatsCommands();
+        addStatisticsStorageCommands();
     }
 
     /**
@@ -197,30 +227,142 @@ public class Commands {
         );
 
         /**
-         * Player list command. When used on a key, it will return a list of players' scores, ordered from top to bottom.
-         * Usage: /bbstats players list <key>
+         * Player list command. When used on a key, it will return a page of players' scores, ordered from top to bottom.
+         * Usage: /bbstats players list <key> [page]
          *
          * @author   Jade Godwin          <icanhasabanana@gmail.com>
          * @since    0.2.0
          */
         CommandLeaf players_list = players.getChild("list");
         CommandLeaf list_key = addCustomStatisticSelection(players_list, CustomStatisticPertainability.MAINTAINS,
-            (context, player, statistic) -> {
-                // Send feedback to player.
-                List<Pair<String, Integer>> scores = statistic.getScores();
-                scores.sort(Comparator.comparing(scorePair -> -scorePair.getRight()));
-                if (scores.isEmpty()) context.getSource().sendFeedback(() -> Text.literal("[" + statistic.getDisplayName() + "] has no player scores"), false);
-                else {
-                    context.getSource().sendFeedback(() -> Text.literal("[" + statistic.getDisplayName() + "] has the following scores:"), false);
-                    for (int i = 0; i < scores.size(); i++) {
-                        Text text = Text.literal( "#" + (i + 1) + ": ").formatted(Formatting.YELLOW).append(Text.literal(scores.get(i).getLeft() + ": " + scores.get(i).getRight()).formatted(Formatting.WHITE));
-                        context.getSource().sendFeedback(() -> text, false);
+            (context, player, statistic) -> sendScoresPage(context, statistic, 1));
+        CommandLeaf list_page = list_key.getChild("page");
+        list_page.setType(IntegerArgumentType.integer(1));
+        list_page.onExecute(context ->
+                getCustomStatAndExecute(context, CustomStatisticPertainability.MAINTAINS, ((context1, player, statistic) ->
+                        sendScoresPage(context, statistic, IntegerArgumentType.getInteger(context, "page"))))
+        );
+
+        /**
+         * Player top command. Returns the top N players' scores as a single message.
+         * Usage: /bbstats players top <key> <n>
+         *
+         * @author   Jade Godwin          <icanhasabanana@gmail.com>
+         * @since    0.2.1
+         */
+        CommandLeaf players_top = players.getChild("top");
+        CommandLeaf top_key = addCustomStatisticSelection(players_top, CustomStatisticPertainability.MAINTAINS, null);
+        CommandLeaf top_amount = top_key.getChild("n");
+        top_amount.setType(IntegerArgumentType.integer(1, MAX_TOP_SCORES));
+        top_amount.onExecute(context ->
+                getCustomStatAndExecute(context, CustomStatisticPertainability.MAINTAINS, ((context1, player, statistic) -> {
+                    // Get the top scores.
+                    int amount = IntegerArgumentType.getInteger(context, "n");
+                    List<Pair<String, Integer>> scores = statistic.getRankedScores(0, amount);
+                    if (scores.isEmpty()) {
+                        context.getSource().sendFeedback(() -> Text.literal("[" + statistic.getDisplayName() + "] has no player scores"), false);
+                        return 0;
                     }
-                }
 
-                // Return score list size.
-                return scores.size();
-            });
+                    // Send them as one message.
+                    MutableText text = Text.literal("Top " + scores.size() + " of [" + statistic.getDisplayName() + "]:");
+                    appendRankedScores(text, scores, 0);
+                    context.getSource().sendFeedback(() -> text, false);
+                    return scores.size();
+                }))
+        );
+
+        /**
+         * Player rank command. Returns the given player's position on the stat's leaderboard.
+         * Usage: /bbstats players rank <key> <target>
+         *
+         * @author   Jade Godwin          <icanhasabanana@gmail.com>
+         * @since    0.2.1
+         */
+        CommandLeaf players_rank = players.getChild("rank");
+        CommandLeaf rank_key = addCustomStatisticSelection(players_rank, CustomStatisticPertainability.MAINTAINS, null);
+        CommandLeaf rank_target = rank_key.getChild("target");
+        rank_target.setType(ScoreHolderArgumentType.scoreHolder()).suggests(ScoreHolderArgumentType.SUGGESTION_PROVIDER);
+        rank_target.onExecute(context ->
+                getCustomStatAndExecute(context, CustomStatisticPertainability.MAINTAINS, ((context1, player, statistic) -> {
+                    // Gather target name.
+                    String target = getPlayerNameFromScoreHolderType(context, "target");
+                    if (target == null) return 0;
+
+                    // Send feedback to player.
+                    int rank = statistic.getRank(target);
+                    if (rank == 0) {
+                        context.getSource().sendFeedback(() -> Text.literal(target + " has no [" + statistic.getDisplayName() + "] score"), false);
+                        return 0;
+                    }
+                    int score = statistic.getScore(target);
+                    int total = statistic.getScoreCount();
+                    context.getSource().sendFeedback(() -> Text.literal("#" + rank + ": ").formatted(Formatting.YELLOW).append(Text.literal(target + " has a [" + statistic.getDisplayName() + "] score of " + score + " (out of " + total + " players)").formatted(Formatting.WHITE)), false);
+                    return rank;
+                }))
+        );
+
+        /**
+         * Player gained command. Returns how much was gained over a time window, like "12h" or "7d".
+         * Without a target, the players that gained the most are listed.
+         * Usage: /bbstats players gained <key> <window> [target]
+         *
+         * @author   Jade Godwin          <icanhasabanana@gmail.com>
+         * @since    0.2.1
+         */
+        CommandLeaf players_gained = players.getChild("gained");
+        CommandLeaf gained_key = addCustomStatisticSelection(players_gained, CustomStatisticPertainability.MAINTAINS, null);
+        CommandLeaf gained_window = gained_key.getChild("window");
+        gained_window.setType(StringArgumentType.word()).suggests((context, builder) -> {
+            builder.suggest("1h").suggest("24h").suggest("7d").suggest("30d").suggest("365d");
+            return builder.buildFuture();
+        });
+        CommandLeaf gained_target = gained_window.getChild("target");
+        gained_target.setType(ScoreHolderArgumentType.scoreHolder()).suggests(ScoreHolderArgumentType.SUGGESTION_PROVIDER);
+        gained_window.onExecute(context ->
+                getCustomStatAndExecute(context, CustomStatisticPertainability.MAINTAINS, ((context1, player, statistic) -> {
+                    // Parse the window.
+                    String window = StringArgumentType.getString(context, "window");
+                    int hours = parseHistoryWindow(window);
+                    if (hours <= 0) {
+                        context.getSource().sendFeedback(() -> Text.literal("Invalid time window '" + window + "', use something like 12h or 7d").formatted(Formatting.RED), false);
+                        return 0;
+                    }
+
+                    // Get the top gainers.
+                    List<Pair<String, Integer>> gained = statistic.getTopGained(hours, SCORES_PER_PAGE);
+                    if (gained.isEmpty()) {
+                        context.getSource().sendFeedback(() -> Text.literal("Nobody's [" + statistic.getDisplayName() + "] score changed in the last " + window), false);
+                        return 0;
+                    }
+
+                    // Send them as one message.
+                    MutableText text = Text.literal("Most gained [" + statistic.getDisplayName() + "] in the last " + window + ":");
+                    appendRankedScores(text, gained, 0);
+                    context.getSource().sendFeedback(() -> text, false);
+                    return gained.size();
+                }))
+        );
+        gained_target.onExecute(context ->
+                getCustomStatAndExecute(context, CustomStatisticPertainability.MAINTAINS, ((context1, player, statistic) -> {
+                    // Parse the window.
+                    String window = StringArgumentType.getString(context, "window");
+                    int hours = parseHistoryWindow(window);
+                    if (hours <= 0) {
+                        context.getSource().sendFeedback(() -> Text.literal("Invalid time window '" + window + "', use something like 12h or 7d").formatted(Formatting.RED), false);
+                        return 0;
+                    }
+
+                    // Gather target name.
+                    String target = getPlayerNameFromScoreHolderType(context, "target");
+                    if (target == null) return 0;
+
+                    // Send feedback to player.
+                    long gained = statistic.getGained(target, hours);
+                    context.getSource().sendFeedback(() -> Text.literal(target + " gained " + gained + " [" + statistic.getDisplayName() + "] in the last " + window), false);
+                    return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, gained));
+                }))
+        );
 
         /**
          * Player remove command. Subtracts the given amount from the given players' stat.
@@ -350,6 +492,67 @@ public class Commands {
                 }))
         );
 
+        /**
+         * Player multi command. Applies one operation to the targets' scores of several stats at once.
+         * Stat keys are separated by spaces, and every one of them has to be maintained by the player.
+         * Usage: /bbstats players multi <operation> <targets> <amount> <keys>
+         *
+         * @author   Jade Godwin          <icanhasabanana@gmail.com>
+         * @since    0.2.1
+         */
+        CommandLeaf players_multi = players.getChild("multi");
+        CommandLeaf multi_operation = players_multi.getChild("operation");
+        multi_operation.setType(StringArgumentType.word()).suggests((context, builder) -> {
+            for (ScoreOperation operation : ScoreOperation.values())
+                builder.suggest(operation.asString());
+            return builder.buildFuture();
+        });
+        CommandLeaf multi_target = multi_operation.getChild("targets");
+        multi_target.setType(ScoreHolderArgumentType.scoreHolders()).suggests(ScoreHolderArgumentType.SUGGESTION_PROVIDER);
+        CommandLeaf multi_amount = multi_target.getChild("amount");
+        multi_amount.setType(IntegerArgumentType.integer());
+        CommandLeaf multi_keys = multi_amount.getChild("keys");
+        multi_keys.setType(StringArgumentType.greedyString());
+        multi_keys.onExecute(context -> {
+            ServerCommandSource source = context.getSource();
+            ServerPlayerEntity player = source.getPlayer();
+
+            // Get the operation.
+            String operation_name = StringArgumentType.getString(context, "operation");
+            ScoreOperation operation = ScoreOperation.getByName(operation_name);
+            if (operation == null) {
+                source.sendFeedback(() -> Text.literal("Unknown operation '" + operation_name + "'").formatted(Formatting.RED), false);
+                return 0;
+            }
+
+            // Gather target names.
+            List<String> target_names = getPlayerNamesFromScoreHoldersType(context, "targets");
+            if (target_names == null) return 0;
+            int amount = IntegerArgumentType.getInteger(context, "amount");
+
+            // Resolve every stat up front, so nothing is changed when one of them fails.
+            CustomStatisticsComponent component = CustomStatisticsComponent.getInstance();
+            List<CustomStatisticMutation> mutations = new ArrayList<>();
+            for (String key : StringArgumentType.getString(context, "keys").split(" ")) {
+                if (key.isEmpty()) continue;
+                CustomStatistic statistic = component.getCustomStatistic(key);
+                if (statistic == null) {
+                    source.sendFeedback(() -> Text.literal("Unknown custom stat '" + key + "'").formatted(Formatting.RED), false);
+                    return 0;
+                }
+                if (!source.hasPermissionLevel(1) && (player == null || !statistic.pertains(player.getName().getString(), CustomStatisticPertainability.MAINTAINS))) {
+                    source.sendFeedback(() -> Text.literal("Only maintainers of a custom stat can do that.").formatted(Formatting.RED), false);
+                    return 0;
+                }
+                mutations.add(new CustomStatisticMutation(statistic, target_names, operation, amount));
+            }
+
+            // Apply them all in one go.
+            int changed = component.applyMutations(mutations);
+            source.sendFeedback(() -> Text.literal("Applied " + operation.asString() + " to " + mutations.size() + " stats for " + target_names.size() + " players"), true);
+            return changed;
+        });
+
     }
 
     /**
@@ -637,6 +840,108 @@ public class Commands {
         );
     }
 
+    /**
+     * Add statistics commands under the 'storage' branch.
+     * Allows ops to see & change how the custom statistics are saved.
+     * Usage: /bbstats storage [mode]
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private static void addStatisticsStorageCommands() {
+        CommandLeaf storage = BBSTATS.getChild("storage");
+        storage.requires(serverCommandSource -> serverCommandSource.hasPermissionLevel(2));
+        storage.onExecute(context -> {
+            CustomStatisticsStorage current = CustomStatisticsComponent.getInstance().getStorage();
+            context.getSource().sendFeedback(() -> Text.literal("Custom stats are saved using the '" + current.asString() + "' storage mode"), false);
+            return 1;
+        });
+
+        CommandLeaf storage_mode = storage.getChild("mode");
+        storage_mode.setType(StringArgumentType.word());
+        storage_mode.suggests((context, builder) -> {
+            for (CustomStatisticsStorage mode : CustomStatisticsStorage.values()) builder.suggest(mode.asString());
+            return builder.buildFuture();
+        });
+        storage_mode.onExecute(context -> {
+            // Make sure a valid mode was provided.
+            String mode_name = StringArgumentType.getString(context, "mode");
+            CustomStatisticsStorage mode = CustomStatisticsStorage.getByName(mode_name);
+            if (mode == null) {
+                context.getSource().sendFeedback(() -> Text.literal("Invalid storage mode!").formatted(Formatting.RED), false);
+                return 0;
+            }
+
+            // Set it. It takes effect on the next save.
+            int return_value = CustomStatisticsComponent.getInstance().setStorage(mode);
+            if (return_value == 0) context.getSource().sendFeedback(() -> Text.literal("Custom stats already use the '" + mode_name + "' storage mode").formatted(Formatting.RED), false);
+            else context.getSource().sendFeedback(() -> Text.literal("Custom stats will be saved using the '" + mode_name + "' storage mode from the next save on"), true);
+            return return_value;
+        });
+    }
+
+    /**
+     * Send a single page of a custom stat's ranked scores as one message.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private static int sendScoresPage(CommandContext<ServerCommandSource> context, CustomStatistic statistic, int page) {
+        // Make sure there is something to show.
+        int total = statistic.getScoreCount();
+        if (total == 0) {
+            context.getSource().sendFeedback(() -> Text.literal("[" + statistic.getDisplayName() + "] has no player scores"), false);
+            return 0;
+        }
+
+        // Clamp the page and get its scores.
+        int page_count = (total + SCORES_PER_PAGE - 1) / SCORES_PER_PAGE;
+        int selected_page = Math.min(page, page_count);
+        int offset = (selected_page - 1) * SCORES_PER_PAGE;
+        List<Pair<String, Integer>> scores = statistic.getRankedScores(offset, SCORES_PER_PAGE);
+
+        // Send them as one message.
+        MutableText text = Text.literal("[" + statistic.getDisplayName() + "] has the following scores (page " + selected_page + "/" + page_count + "):");
+        appendRankedScores(text, scores, offset);
+        context.getSource().sendFeedback(() -> text, false);
+        return total;
+    }
+
+    /**
+     * Parse a history window like "12h" or "7d" (or a plain amount of hours) into hours.
+     * Returns -1 when it can't be parsed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private static int parseHistoryWindow(String window) {
+        if (window == null || window.isEmpty()) return -1;
+        int multiplier = 1;
+        String amount = window;
+        if (window.endsWith("h")) amount = window.substring(0, window.length() - 1);
+        else if (window.endsWith("d")) { amount = window.substring(0, window.length() - 1); multiplier = 24; }
+        try {
+            int value = Integer.parseInt(amount);
+            if (value <= 0 || value > ScoreHistory.DAYS * 24 / multiplier) return -1;
+            return value * multiplier;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Append ranked score lines to the given text, starting at the given 0-based rank.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private static void appendRankedScores(MutableText text, List<Pair<String, Integer>> scores, int offset) {
+        for (int i = 0; i < scores.size(); i++) {
+            text.append(Text.literal("\n#" + (offset + i + 1) + ": ").formatted(Formatting.YELLOW));
+            text.append(Text.literal(scores.get(i).getLeft() + ": " + scores.get(i).getRight()).formatted(Formatting.WHITE));
+        }
+    }
+
     /**
      * Get the custom stat referenced in the context and execute the given command.
      *
@@ -18,12 +18,20 @@ public class CustomStatistic {
     protected String display_name;
     protected Identifier key;
     protected ItemStack display_item;
-    protected List<String> maintainers = new ArrayList<>();
-    protected HashMap<String, Integer> scores = new HashMap<>();
+    protected LinkedHashSet<String> maintainers = new LinkedHashSet<>();
+    protected final PlayerDictionary players;
+    protected final ScoreColumn scores = new ScoreColumn();
+    protected ScoreSource unloaded_scores = null;
+    protected final ScoreHistory history = new ScoreHistory();
     protected StatFormat format = StatFormat.DEFAULT;
+    protected CustomStatisticsComponent component = null;
+    protected boolean is_dirty = true;
+    protected NbtCompound cached_nbt = null;
+    protected boolean cached_without_scores = false;
 
-    protected CustomStatistic(@NotNull Identifier key, @NotNull String name, @NotNull String owner_name) {
+    protected CustomStatistic(@NotNull Identifier key, @NotNull String name, @NotNull String owner_name, @NotNull PlayerDictionary players) {
         this.key = key;
+        this.players = players;
         this.display_name = name;
         this.owner_name = owner_name;
         this.maintainers.add(owner_name);
@@ -38,7 +46,7 @@ public class CustomStatistic {
     public String getOwner() { return owner_name; }
     public Identifier getKey() { return this.key; }
     public String getDisplayName() { return this.display_name; }
-    public List<String> getMaintainers() { return this.maintainers; }
+    public List<String> getMaintainers() { return List.copyOf(this.maintainers); }
     public ItemStack getDisplayItem() {
         // If the display item is not set, then return the owner's player head.
         if (this.display_item == null || this.display_item.isEmpty()) {
@@ -60,18 +68,23 @@ public class CustomStatistic {
      */
     public int setOwner(String target) {
         if (target == null || target.isEmpty() || owner_name.equals(target)) return 0;
+        String previous_owner = owner_name;
         owner_name = target;
+        if (this.component != null) this.component.onOwnerChanged(this, previous_owner);
+        this.markDirty();
         return 1;
     }
 
     public int setDisplayName(String name) {
         if (name == null || name.isEmpty()) return 0;
         this.display_name = name;
+        this.markDirty();
         return 1;
     }
 
     public int setFormat(StatFormat format) {
         this.format = format;
+        this.markDirty();
         return 1;
     }
 
@@ -89,18 +102,23 @@ public class CustomStatistic {
             // Set and return.
             this.display_item = display_stack;
         }
+        this.markDirty();
         return 1;
     }
 
     public int addMaintainer(String target) {
         if (target == null || target.isEmpty() || isMaintainer(target)) return 0;
         maintainers.add(target);
+        if (this.component != null) this.component.onMaintainerAdded(this, target);
+        this.markDirty();
         return 1;
     }
 
     public int removeMaintainer(String target) {
         if (target == null || target.isEmpty() || !isMaintainer(target) || owner_name.equals(target)) return 0;
         maintainers.remove(target);
+        if (this.component != null) this.component.onMaintainerRemoved(this, target);
+        this.markDirty();
         return 1;
     }
 
@@ -111,34 +129,219 @@ public class CustomStatistic {
      * @since    0.2.0
      */
     public int getScore(String target) {
-        if (this.scores.containsKey(target))
-            return this.scores.get(target);
-        return 0;
+        if (target == null) return 0;
+
+        // Decode the scores first, the player might only be added to the dictionary by decoding them.
+        ScoreColumn column = this.getScoreColumn();
+        return column.get(this.players.getId(target));
     }
 
+    /**
+     * Get the score of a player by their id in the player dictionary.
+     * Useful when reading the same player's score from many statistics.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getScore(int player_id) { return this.getScoreColumn().get(player_id); }
+
     public String getFormattedScore(String target) { return this.format.getFormatter().format(this.getScore(target)); }
 
     public List<Pair<String, Integer>> getScores() {
         // Put scores on a list and return.
-        List<Pair<String, Integer>> scores = new ArrayList<>();
-        this.scores.forEach((name, score) -> scores.add(new Pair<>(name, score)));
+        ScoreColumn column = this.getScoreColumn();
+        List<Pair<String, Integer>> scores = new ArrayList<>(column.size());
+        column.forEach((id, score) -> scores.add(new Pair<>(this.players.getName(id), score)));
+        return scores;
+    }
+
+    /**
+     * Ranked score queries, backed by the column's order-statistic tree.
+     * Ranks are 1-based, highest score first.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getScoreCount() { return this.getScoreColumn().size(); }
+
+    /**
+     * Get the 1-based rank of a player, or 0 if they don't have a score.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getRank(String target) {
+        if (target == null) return 0;
+
+        // Decode the scores first, the player might only be added to the dictionary by decoding them.
+        ScoreColumn column = this.getScoreColumn();
+        int id = this.players.getId(target);
+        if (!column.has(id)) return 0;
+        return column.getRanking().rankOf(id) + 1;
+    }
+
+    public List<Pair<String, Integer>> getRankedScores(int offset, int count) {
+        // Clamp the requested range.
+        ScoreColumn column = this.getScoreColumn();
+        ScoreRanking ranking = column.getRanking();
+        int start = Math.max(0, offset);
+        int end = Math.min(ranking.size(), start + Math.max(0, count));
+
+        // Select each rank in the range.
+        List<Pair<String, Integer>> scores = new ArrayList<>(Math.max(0, end - start));
+        for (int rank = start; rank < end; rank++) {
+            int id = ranking.select(rank);
+            scores.add(new Pair<>(this.players.getName(id), column.get(id)));
+        }
         return scores;
     }
 
     public int resetScore(String target) { return this.setScore(target, 0); }
-    public int setScore(String target, Integer value) {
+    public int setScore(String target, int value) {
         if (target == null || target.isEmpty()) return 0;
-        this.scores.put(target, value);
-        return getScore(target);
+        int id = this.players.getOrCreateId(target);
+        this.markDirty();
+        if (this.component != null) this.component.onScoreSet(this, id, value);
+        ScoreColumn column = this.getScoreColumn();
+        int old_value = column.get(id);
+        if (!this.isReplaying()) this.history.record(id, value - old_value);
+        int new_value = column.set(id, value);
+        if (this.component != null) this.component.onScoreChanged(this, id, new_value);
+        if (CustomStatisticEvents.hasListeners() && !this.isReplaying()) CustomStatisticEvents.record(this, id, old_value, new_value);
+        return new_value;
     }
 
+    private boolean isReplaying() { return this.component != null && this.component.isReplayingJournal(); }
+
     public int removeScore(String target, int value) { return addScore(target, -value); }
     public int addScore(String target, int value) {
         if (target == null || target.isEmpty()) return 0;
-        this.scores.put(target, this.getScore(target) + value);
-        return getScore(target);
+        int id = this.players.getOrCreateId(target);
+        this.markDirty();
+        if (this.component != null) this.component.onScoreAdded(this, id, value);
+        if (!this.isReplaying()) this.history.record(id, value);
+        int new_value = this.getScoreColumn().add(id, value);
+        if (this.component != null) this.component.onScoreChanged(this, id, new_value);
+        if (CustomStatisticEvents.hasListeners() && !this.isReplaying()) CustomStatisticEvents.record(this, id, new_value - value, new_value);
+        return new_value;
+    }
+
+    /**
+     * Get how much a player's score changed over the last given amount of hours.
+     * See {@link ScoreHistory#getChange(int, int)} for the precision of long windows.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public long getGained(String target, int hours) {
+        if (target == null) return 0;
+        return this.history.getChange(this.players.getId(target), hours);
+    }
+
+    /**
+     * Get the players that gained the most over the last given amount of hours, highest first.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public List<Pair<String, Integer>> getTopGained(int hours, int count) {
+        List<Pair<String, Integer>> gained = new ArrayList<>();
+        this.history.getChanges(hours).int2IntEntrySet().forEach(entry -> {
+            if (entry.getIntValue() != 0)
+                gained.add(new Pair<>(this.players.getName(entry.getIntKey()), entry.getIntValue()));
+        });
+        gained.sort(Comparator.comparing((Pair<String, Integer> pair) -> pair.getRight()).reversed());
+        return gained.subList(0, Math.min(Math.max(0, count), gained.size()));
+    }
+
+    /**
+     * Get the score column, decoding the stat's scores the first time they are needed.
+     * Stats are loaded without decoding their scores, so stats nobody looks at cost (almost) nothing.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    protected ScoreColumn getScoreColumn() {
+        if (this.unloaded_scores != null) {
+            ScoreSource source = this.unloaded_scores;
+            this.unloaded_scores = null;
+            source.forEach((name, score) -> this.scores.set(this.players.getOrCreateId(name), score));
+        }
+        return this.scores;
+    }
+
+    public boolean areScoresLoaded() { return this.unloaded_scores == null; }
+
+    /**
+     * Iterate over every score, without decoding them if they haven't been yet.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void forEachScore(ScoreSource.NamedScoreConsumer consumer) {
+        if (this.unloaded_scores != null) this.unloaded_scores.forEach(consumer);
+        else this.scores.forEach((id, score) -> consumer.accept(this.players.getName(id), score));
+    }
+
+    /**
+     * Mark this stat as changed since it was last serialized.
+     * This also marks the owning component as dirty, so it gets saved.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void markDirty() {
+        this.is_dirty = true;
+        if (this.component != null && !this.component.isApplyingMutations()) this.component.markDirty();
+    }
+
+    public boolean isDirty() { return this.is_dirty; }
+
+    /**
+     * Get the serialized form of this stat.
+     * The compound is cached, and only rebuilt when the stat changed since the last call.
+     * The returned compound must not be modified.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public NbtCompound getCachedNbt() {
+        if (this.is_dirty || this.cached_nbt == null || this.cached_without_scores) {
+            this.cached_nbt = this.toNbt();
+            this.cached_without_scores = false;
+            this.is_dirty = false;
+        }
+        return this.cached_nbt;
+    }
+
+    /**
+     * Capture this stat for a snapshot.
+     * Scores that were never decoded out of a columnar file are passed along as-is, and read by the saver.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public CustomStatisticsSnapshot.Statistic getSnapshot() {
+        if (!(this.unloaded_scores instanceof ScoreSource.Columnar))
+            return new CustomStatisticsSnapshot.Statistic(this.getCachedNbt(), null);
+
+        if (this.is_dirty || this.cached_nbt == null) {
+            this.cached_nbt = this.toNbt(false);
+            this.cached_without_scores = true;
+            this.is_dirty = false;
+        }
+        return new CustomStatisticsSnapshot.Statistic(this.cached_nbt, this.unloaded_scores);
     }
 
+    /**
+     * Attach this stat to (or detach it from) the component that indexes it.
+     * While attached, ownership & maintainer changes are reported back so the component's indexes stay current.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    void setComponent(CustomStatisticsComponent component) { this.component = component; }
+
     /**
      * Is the given user a maintainer of this stat?
      *
@@ -167,7 +370,7 @@ public class CustomStatistic {
      * @author   Jade Godwin          <icanhasabanana@gmail.com>
      * @since    0.2.0
      */
-    public static CustomStatistic fromNbt(NbtElement nbt) {
+    public static CustomStatistic fromNbt(NbtElement nbt, PlayerDictionary players) {
         // Only load if all the data is present.
         if (nbt instanceof NbtCompound compound &&
                 compound.contains("owner_name", NbtElement.STRING_TYPE) &&
@@ -183,7 +386,7 @@ public class CustomStatistic {
 
             // Instantiate custom statistic object.
             CustomStatistic customStatistic = new CustomStatistic(
-                    key, compound.getString("display_name"), compound.getString("owner_name"));
+                    key, compound.getString("display_name"), compound.getString("owner_name"), players);
 
             // Pull maintainers, if exists.
             if (compound.contains("maintainers", NbtElement.LIST_TYPE)) {
@@ -193,13 +396,13 @@ public class CustomStatistic {
                 });
             }
 
-            // Pull scores, if exists.
-            if (compound.contains("scores", NbtElement.COMPOUND_TYPE)) {
-                NbtCompound scores = compound.getCompound("scores");
-                scores.getKeys().forEach(username -> {
-                    customStatistic.setScore(username, scores.getInt(username));
-                });
-            }
+            // Pull the score history, if it exists.
+            if (compound.contains("history", NbtElement.COMPOUND_TYPE))
+                customStatistic.history.readNbt(compound.getCompound("history"), players);
+
+            // Keep the scores, if they exist. They only get decoded once they are needed.
+            if (compound.contains("scores", NbtElement.COMPOUND_TYPE))
+                customStatistic.unloaded_scores = new ScoreSource.Nbt(compound.getCompound("scores"));
 
             // Pull format, if exists.
             if (compound.contains("format", NbtElement.STRING_TYPE)) {
@@ -208,6 +411,10 @@ public class CustomStatistic {
                     customStatistic.setFormat(format);
             }
 
+            // What was just read is exactly what needs to be written until something changes.
+            customStatistic.cached_nbt = compound;
+            customStatistic.is_dirty = false;
+
             // Return.
             return customStatistic;
         }
@@ -223,12 +430,19 @@ public class CustomStatistic {
      * @author   Jade Godwin          <icanhasabanana@gmail.com>
      * @since    0.2.0
      */
-    public NbtCompound toNbt() {
+    public NbtCompound toNbt() { return this.toNbt(true); }
+
+    protected NbtCompound toNbt(boolean with_scores) {
         // Put maintainers and scores in nbt structures.
         NbtList maintainers = new NbtList();
         this.maintainers.forEach(name -> { maintainers.add(NbtString.of(name)); });
-        NbtCompound scores = new NbtCompound();
-        this.scores.forEach(scores::putInt);
+        NbtCompound scores;
+        if (this.unloaded_scores instanceof ScoreSource.Nbt nbt_scores) {
+            scores = nbt_scores.scores();
+        } else {
+            scores = new NbtCompound();
+            if (with_scores) this.forEachScore(scores::putInt);
+        }
 
         // Put everything else.
         NbtCompound stat_info = new NbtCompound();
@@ -237,7 +451,8 @@ public class CustomStatistic {
         stat_info.putString("owner_name", this.owner_name);
         stat_info.putString("format", this.format.asString());
         stat_info.put("maintainers", maintainers);
-        stat_info.put("scores", scores);
+        if (!this.history.isEmpty()) stat_info.put("history", this.history.toNbt(this.players));
+        if (with_scores) stat_info.put("scores", scores);
 
         // Return.
         return stat_info;
@@ -0,0 +1,167 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import net.minecraft.util.Identifier;
+import rocks.blackblock.topper.BlackBlockTopper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets other mods react to custom statistic score changes.
+ *
+ * Changes are collected during a tick, coalesced per statistic & player (keeping the oldest old value and the newest new value),
+ * and delivered as one batch at the end of the tick.
+ * Listeners are called on the server thread, or on a background thread if they were registered as async.
+ * Events only carry the statistic's key, so async listeners never touch a statistic while the server thread changes it.
+ * As long as nobody listens, nothing is recorded at all, and replaying the journal on startup fires no events.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class CustomStatisticEvents {
+
+    private static final List<ScoreChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final List<ScoreChangeListener> ASYNC_LISTENERS = new CopyOnWriteArrayList<>();
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Blackblock Custom Statistic Events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile boolean has_listeners = false;
+
+    // The changes of the current tick: old & new value packed into a long, per player id, per statistic.
+    private static final Reference2ObjectLinkedOpenHashMap<CustomStatistic, Int2LongOpenHashMap> PENDING = new Reference2ObjectLinkedOpenHashMap<>();
+
+    /**
+     * Listen for score changes on the server thread.
+     * Keep it cheap, or use {@link #registerAsync(ScoreChangeListener)} instead.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void register(ScoreChangeListener listener) {
+        LISTENERS.add(listener);
+        has_listeners = true;
+    }
+
+    /**
+     * Listen for score changes on a background thread.
+     * Batches are delivered one at a time, in order.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void registerAsync(ScoreChangeListener listener) {
+        ASYNC_LISTENERS.add(listener);
+        has_listeners = true;
+    }
+
+    public static boolean hasListeners() { return has_listeners; }
+
+    /**
+     * Record a score change. Only called when there are listeners.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    static void record(CustomStatistic statistic, int player_id, int old_value, int new_value) {
+        if (old_value == new_value) return;
+        Int2LongOpenHashMap changes = PENDING.get(statistic);
+        if (changes == null) {
+            changes = new Int2LongOpenHashMap();
+            PENDING.put(statistic, changes);
+        }
+
+        // Keep the value from before the first change of this tick.
+        if (changes.containsKey(player_id)) old_value = (int) (changes.get(player_id) >>> 32);
+        changes.put(player_id, ((long) old_value << 32) | (new_value & 0xFFFFFFFFL));
+    }
+
+    /**
+     * Deliver the changes of this tick. Called at the end of every server tick.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void flush() {
+        if (PENDING.isEmpty()) return;
+
+        // Turn the pending changes into events, dropping the ones that cancelled out.
+        List<ScoreChange> batch = new ArrayList<>();
+        PENDING.forEach((statistic, changes) -> {
+            for (Int2LongMap.Entry entry : changes.int2LongEntrySet()) {
+                int old_value = (int) (entry.getLongValue() >>> 32);
+                int new_value = (int) entry.getLongValue();
+                if (old_value != new_value)
+                    batch.add(new ScoreChange(statistic.getKey(), statistic.players.getName(entry.getIntKey()), old_value, new_value));
+            }
+        });
+        PENDING.clear();
+        if (batch.isEmpty()) return;
+        List<ScoreChange> changes = List.copyOf(batch);
+
+        // Deliver them.
+        for (ScoreChangeListener listener : LISTENERS) {
+            try {
+                listener.onScoreChanges(changes);
+            } catch (RuntimeException e) {
+                BlackBlockTopper.LOGGER.error("A custom statistic change listener failed", e);
+            }
+        }
+        for (ScoreChangeListener listener : ASYNC_LISTENERS) {
+            EXECUTOR.execute(() -> {
+                try {
+                    listener.onScoreChanges(changes);
+                } catch (RuntimeException e) {
+                    BlackBlockTopper.LOGGER.error("An async custom statistic change listener failed", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deliver the last changes and wait for the async listeners to finish. Called when the server stops.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void drain() {
+        flush();
+        try {
+            EXECUTOR.submit(() -> {}).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            BlackBlockTopper.LOGGER.error("Timed out waiting for the async custom statistic change listeners", e);
+        }
+    }
+
+    /**
+     * A single (coalesced) score change.
+     * Look the statistic up through its key if more than the values are needed, on the server thread.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public record ScoreChange(Identifier statistic, String player, int old_value, int new_value) {}
+
+    /**
+     * Receives the score changes of a tick.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @FunctionalInterface
+    public interface ScoreChangeListener {
+        void onScoreChanges(List<ScoreChange> changes);
+    }
+}
@@ -0,0 +1,16 @@
+package rocks.blackblock.topper.statistics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * A single change to apply to many players' scores of a custom statistic.
+ * The amount is ignored for {@link ScoreOperation#RESET}.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public record CustomStatisticMutation(@NotNull CustomStatistic statistic, @NotNull Collection<String> targets,
+                                      @NotNull ScoreOperation operation, int amount) {
+}
@@ -0,0 +1,269 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtTagSizeTracker;
+import net.minecraft.util.Identifier;
+import rocks.blackblock.core.statistics.StatFormat;
+import rocks.blackblock.topper.BlackBlockTopper;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact binary file format for the custom statistics.
+ *
+ * Instead of repeating every player name inside every statistic, the file starts with a dictionary of player names.
+ * Each statistic then stores its scores as two packed columns:
+ * the dictionary indexes in ascending order as delta-encoded varints, and the scores as zigzag varints.
+ *
+ * Layout:
+ * - int magic, byte version, long journal generation
+ * - varint player count, followed by that many strings
+ * - varint statistic count, followed by that many statistics:
+ *   key, display name, owner name & format strings, varint maintainer count & strings,
+ *   varint byte length of the history followed by the history as uncompressed NBT (since version 2),
+ *   varint byte length of the score section, varint score count, the index column and the score column
+ *
+ * Strings are a varint byte length followed by UTF-8 bytes.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class CustomStatisticsColumnarFormat {
+
+    private static final int MAGIC = 0x42424353;
+    private static final byte VERSION = 2;
+
+    /**
+     * Write a snapshot in the columnar format.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void write(CustomStatisticsSnapshot snapshot, OutputStream stream) throws IOException {
+        // Build the player dictionary.
+        Object2IntOpenHashMap<String> player_indexes = new Object2IntOpenHashMap<>();
+        List<String> player_names = new ArrayList<>();
+        for (CustomStatisticsSnapshot.Statistic statistic : snapshot.statistics()) {
+            statistic.forEachScore((name, score) -> {
+                if (!player_indexes.containsKey(name)) {
+                    player_indexes.put(name, player_names.size());
+                    player_names.add(name);
+                }
+            });
+        }
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeLong(snapshot.journal_generation());
+
+        // Write the dictionary.
+        writeVarInt(output, player_names.size());
+        for (String name : player_names)
+            writeString(output, name);
+
+        // Write each statistic.
+        ByteArrayOutputStream section_bytes = new ByteArrayOutputStream();
+        DataOutputStream section = new DataOutputStream(section_bytes);
+        writeVarInt(output, snapshot.statistics().size());
+        for (CustomStatisticsSnapshot.Statistic captured : snapshot.statistics()) {
+            NbtCompound statistic = captured.nbt();
+            writeString(output, statistic.getString("key"));
+            writeString(output, statistic.getString("display_name"));
+            writeString(output, statistic.getString("owner_name"));
+            writeString(output, statistic.getString("format"));
+
+            NbtList maintainers = statistic.getList("maintainers", NbtElement.STRING_TYPE);
+            writeVarInt(output, maintainers.size());
+            for (int i = 0; i < maintainers.size(); i++)
+                writeString(output, maintainers.getString(i));
+
+            // The history is small and rarely changes shape, so it is simply kept as NBT.
+            section_bytes.reset();
+            if (statistic.contains("history", NbtElement.COMPOUND_TYPE))
+                NbtIo.write(statistic.getCompound("history"), section);
+            writeVarInt(output, section_bytes.size());
+            section_bytes.writeTo(output);
+
+            // Gather the scores in dictionary order.
+            LongArrayList entry_list = new LongArrayList();
+            captured.forEachScore((name, score) -> entry_list.add(((long) player_indexes.getInt(name) << 32) | (score & 0xFFFFFFFFL)));
+            long[] entries = entry_list.toLongArray();
+            int count = entries.length;
+            Arrays.sort(entries);
+
+            // Encode the index & score columns into their own section, so readers can skip them.
+            section_bytes.reset();
+            writeVarInt(section, count);
+            int previous_index = 0;
+            for (long entry : entries) {
+                int index = (int) (entry >>> 32);
+                writeVarInt(section, index - previous_index);
+                previous_index = index;
+            }
+            for (long entry : entries) {
+                int score = (int) entry;
+                writeVarInt(section, (score << 1) ^ (score >> 31));
+            }
+
+            writeVarInt(output, section_bytes.size());
+            section_bytes.writeTo(output);
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Read the journal generation of a columnar file, or -1 if it isn't a valid file.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static long readGeneration(Path path) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(path.toFile())))) {
+            if (input.readInt() != MAGIC) return -1;
+            byte version = input.readByte();
+            if (version < 1 || version > VERSION) return -1;
+            return input.readLong();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Read all statistics from a columnar file.
+     * Only the metadata is decoded, each statistic keeps a slice of the buffer to decode its scores from later.
+     * The file is copied onto the heap instead of being memory-mapped: a mapped file can't be replaced
+     * (on Windows) while those slices are alive, which would make every later save fail.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static List<CustomStatistic> read(Path path, PlayerDictionary players) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("Not a custom statistics file: " + path);
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION)
+            throw new IOException("Unsupported custom statistics file version " + version + ": " + path);
+        buffer.getLong();
+
+        // Read the player dictionary.
+        String[] player_names = new String[readVarInt(buffer)];
+        for (int i = 0; i < player_names.length; i++)
+            player_names[i] = readString(buffer);
+
+        // Read each statistic.
+        int statistic_count = readVarInt(buffer);
+        List<CustomStatistic> statistics = new ArrayList<>(statistic_count);
+        for (int i = 0; i < statistic_count; i++) {
+            String key_string = readString(buffer);
+            String display_name = readString(buffer);
+            String owner_name = readString(buffer);
+            String format_name = readString(buffer);
+            String[] maintainers = new String[readVarInt(buffer)];
+            for (int j = 0; j < maintainers.length; j++)
+                maintainers[j] = readString(buffer);
+            NbtCompound history = null;
+            if (version >= 2) {
+                byte[] history_bytes = new byte[readVarInt(buffer)];
+                buffer.get(history_bytes);
+                if (history_bytes.length > 0)
+                    history = NbtIo.read(new DataInputStream(new ByteArrayInputStream(history_bytes)), NbtTagSizeTracker.ofUnlimitedBytes());
+            }
+            int section_length = readVarInt(buffer);
+
+            // Skip statistics with a broken key.
+            Identifier key = Identifier.tryParse(key_string);
+            if (key == null) {
+                BlackBlockTopper.LOGGER.error("Failed to load a custom statistic " + key_string + "!");
+                buffer.position(buffer.position() + section_length);
+                continue;
+            }
+
+            // Instantiate the statistic.
+            CustomStatistic statistic = new CustomStatistic(key, display_name, owner_name, players);
+            for (String maintainer : maintainers)
+                statistic.addMaintainer(maintainer);
+            StatFormat format = StatFormat.getByName(format_name);
+            if (format != null)
+                statistic.setFormat(format);
+            if (history != null)
+                statistic.history.readNbt(history, players);
+
+            // Keep the score columns around until they are needed.
+            ByteBuffer section = buffer.slice(buffer.position(), section_length);
+            buffer.position(buffer.position() + section_length);
+            statistic.unloaded_scores = new ScoreSource.Columnar(section, player_names);
+
+            statistics.add(statistic);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Decode a score section.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    static void decodeScores(ByteBuffer section, String[] player_names, ScoreSource.NamedScoreConsumer consumer) {
+        int count = readVarInt(section);
+        int[] indexes = new int[count];
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            index += readVarInt(section);
+            indexes[i] = index;
+        }
+        for (int i = 0; i < count; i++) {
+            int zigzag = readVarInt(section);
+            consumer.accept(player_names[indexes[i]], (zigzag >>> 1) ^ -(zigzag & 1));
+        }
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0 && shift < 35);
+        return value;
+    }
+}
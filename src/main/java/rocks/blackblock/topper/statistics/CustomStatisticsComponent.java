@@ -3,11 +3,15 @@ package rocks.blackblock.topper.statistics;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.command.argument.ScoreHolderArgumentType;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
 import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtTagSizeTracker;
 import net.minecraft.server.PlayerManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -22,14 +26,40 @@ import rocks.blackblock.core.utils.BBLog;
 import rocks.blackblock.topper.BlackBlockTopper;
 import rocks.blackblock.topper.server.Commands;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
 
 public class CustomStatisticsComponent implements Component.Global {
 
     private static CustomStatisticsComponent INSTANCE = null;
+    private static final CustomStatisticsSaver SAVER = new CustomStatisticsSaver();
+    private static final int BULK_RANKING_THRESHOLD = 64;
+    private static Path DATA_DIRECTORY = null;
     private final List<CustomStatistic> customStatisticList = new ArrayList<>();
+    private final HashMap<String, CustomStatistic> statistics_by_path = new HashMap<>();
+    private final HashMap<String, LinkedHashSet<CustomStatistic>> statistics_by_owner = new HashMap<>();
+    private final HashMap<String, LinkedHashSet<CustomStatistic>> statistics_by_maintainer = new HashMap<>();
+    private final PlayerDictionary player_dictionary = new PlayerDictionary();
     private boolean is_dirty = false;
+    private CustomStatisticsJournal journal = null;
+    private long journal_generation = 0;
+    private long open_journal_generation = 0;
+    private boolean journal_replayed = false;
+    private long durable_generation = 0;
+    private boolean wrote_inline = false;
+    private boolean snapshot_file_pending = false;
+    private CustomStatisticsStorage storage = CustomStatisticsStorage.COMPONENT;
+    private boolean applying_mutations = false;
+    private boolean replaying_journal = false;
+
+    // For every player id, the positions in the statistic list of the statistics they have a score in.
+    // Built when first needed, from the scores as they are stored, so it never forces scores to be decoded.
+    private static final BitSet NO_SCORES = new BitSet();
+    private Int2ObjectOpenHashMap<BitSet> score_presence = null;
+    private final Reference2IntOpenHashMap<CustomStatistic> presence_slots = new Reference2IntOpenHashMap<>();
 
     public CustomStatisticsComponent() {
         if (INSTANCE != null) {
@@ -54,17 +84,102 @@ public class CustomStatisticsComponent implements Component.Global {
      */
     @Override
     public void readFromNbt(NbtCompound tag) {
-        // Get custom statistics list.
-        NbtList list = tag.getList("custom_statistics", NbtElement.COMPOUND_TYPE);
+        // Get the storage mode. Older saves don't have one, and store everything in the component.
+        CustomStatisticsStorage storage = CustomStatisticsStorage.getByName(tag.getString("storage"));
+        this.storage = storage == null ? CustomStatisticsStorage.COMPONENT : storage;
+
+        // Load the statistics stored in the component itself.
+        this.journal_generation = tag.getLong("journal_generation");
+        this.durable_generation = this.journal_generation;
+        if (tag.contains("custom_statistics", NbtElement.LIST_TYPE)) {
+            this.loadStatistics(tag.getList("custom_statistics", NbtElement.COMPOUND_TYPE));
+            this.wrote_inline = true;
+        }
 
-        // For each entry in the list, add a new custom statistic.
+        // Asynchronously saved statistics live in their own file.
+        this.snapshot_file_pending = this.storage.isExternal();
+        if (DATA_DIRECTORY != null)
+            this.finishLoading();
+    }
+
+    /**
+     * Add a new custom statistic for each entry in the list.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private void loadStatistics(NbtList list) {
         list.forEach(nbtElement -> {
-            CustomStatistic customStatistic = CustomStatistic.fromNbt(nbtElement);
+            CustomStatistic customStatistic = CustomStatistic.fromNbt(nbtElement, player_dictionary);
             if (customStatistic != null)
-                customStatisticList.add(customStatistic);
+                this.addToIndexes(customStatistic);
         });
     }
 
+    /**
+     * Load the snapshot file (if needed) and replay the journal.
+     * Happens once the world's data directory is known.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private void finishLoading() {
+        if (this.snapshot_file_pending) {
+            this.snapshot_file_pending = false;
+            this.loadSnapshotFile();
+        }
+
+        // Replay the score changes that were journaled after the loaded snapshot was taken.
+        this.replayJournal();
+    }
+
+    /**
+     * Load the statistics from the newest snapshot file, if it is newer than what was stored in the component.
+     * Every format is looked at, so switching between them (or away from the component) migrates transparently.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private void loadSnapshotFile() {
+        Path columnar_path = DATA_DIRECTORY.resolve(CustomStatisticsStorage.COLUMNAR.getFileName());
+        Path nbt_path = DATA_DIRECTORY.resolve(CustomStatisticsStorage.ASYNC.getFileName());
+
+        try {
+            // Get the generation of each file.
+            long columnar_generation = Files.exists(columnar_path) ? CustomStatisticsColumnarFormat.readGeneration(columnar_path) : -1;
+            NbtCompound nbt_tag = null;
+            long nbt_generation = -1;
+            if (Files.exists(nbt_path)) {
+                try (InputStream input = Files.newInputStream(nbt_path)) {
+                    nbt_tag = NbtIo.readCompressed(input, NbtTagSizeTracker.ofUnlimitedBytes());
+                    nbt_generation = nbt_tag.getLong("journal_generation");
+                }
+            }
+
+            // Make sure there is something newer than the component's own copy.
+            long generation = Math.max(columnar_generation, nbt_generation);
+            if (generation < 0) {
+                if (!this.wrote_inline)
+                    BlackBlockTopper.LOGGER.error("Custom statistics snapshot in " + DATA_DIRECTORY + " is missing!");
+                return;
+            }
+            if (this.wrote_inline && generation < this.journal_generation)
+                return;
+
+            // Replace whatever was loaded from the component.
+            new ArrayList<>(customStatisticList).forEach(this::removeFromIndexes);
+            customStatisticList.clear();
+            if (columnar_generation >= nbt_generation)
+                CustomStatisticsColumnarFormat.read(columnar_path, player_dictionary).forEach(this::addToIndexes);
+            else
+                this.loadStatistics(nbt_tag.getList("custom_statistics", NbtElement.COMPOUND_TYPE));
+            this.journal_generation = generation;
+            this.durable_generation = generation;
+        } catch (IOException | RuntimeException e) {
+            BlackBlockTopper.LOGGER.error("Failed to load the custom statistics from " + DATA_DIRECTORY, e);
+        }
+    }
+
     /**
      * Write the custom blackblock stats to the given NBT data
      *
@@ -73,13 +188,253 @@ public class CustomStatisticsComponent implements Component.Global {
      */
     @Override
     public NbtCompound writeToNbt(NbtCompound tag) {
-        // Create an NBT List and add each statistic compound to it.
-        NbtList list = new NbtList();
-        customStatisticList.forEach(customStatistic -> list.add(customStatistic.toNbt()));
-        tag.put("custom_statistics", list);
+        // Capture each statistic.
+        // Only statistics that changed since the last save are serialized again.
+        List<CustomStatisticsSnapshot.Statistic> statistics = new ArrayList<>(customStatisticList.size());
+        customStatisticList.forEach(customStatistic -> statistics.add(customStatistic.getSnapshot()));
+
+        // This snapshot contains everything journaled so far, so start a new journal generation.
+        this.rotateJournal();
+        tag.putLong("journal_generation", this.journal_generation);
+
+        // In the external modes, the snapshot is written to its own file off the server thread.
+        // Until one of those writes has completed, the component keeps a copy too.
+        boolean async = this.storage.isExternal() && DATA_DIRECTORY != null;
+        if (async)
+            SAVER.submit(new CustomStatisticsSnapshot(this.journal_generation, statistics), DATA_DIRECTORY, this.storage);
+        this.wrote_inline = !async || SAVER.getWrittenGeneration() < 0;
+        if (this.wrote_inline) {
+            NbtList list = new NbtList();
+            statistics.forEach(statistic -> list.add(statistic.toNbt()));
+            tag.put("custom_statistics", list);
+        }
+
+        tag.putString("storage", (async ? this.storage : CustomStatisticsStorage.COMPONENT).asString());
         return tag;
     }
 
+    /**
+     * Get or change the storage mode. The new mode takes effect on the next save.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public CustomStatisticsStorage getStorage() { return this.storage; }
+
+    public int setStorage(CustomStatisticsStorage storage) {
+        if (storage == null || storage == this.storage) return 0;
+        this.storage = storage;
+        this.markDirty();
+        return 1;
+    }
+
+    /**
+     * Block until every asynchronous save has reached the disk. Called when the server has stopped.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void awaitSaves() { SAVER.awaitCompletion(); }
+
+    /**
+     * Set the directory the score journal & snapshot file live in.
+     * Called when the server starts, before the world (and thus this component) is loaded.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void setDataDirectory(Path directory) { DATA_DIRECTORY = directory; }
+
+    /**
+     * Replay all journaled score changes newer than the loaded snapshot.
+     * Only happens once, either when the snapshot is read or when the server has started.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private void replayJournal() {
+        if (this.journal_replayed || DATA_DIRECTORY == null) return;
+        this.journal_replayed = true;
+
+        // New changes go to a generation newer than anything that was replayed.
+        long newest;
+        this.replaying_journal = true;
+        try {
+            newest = CustomStatisticsJournal.replay(DATA_DIRECTORY, this.journal_generation, this);
+        } finally {
+            this.replaying_journal = false;
+        }
+        this.open_journal_generation = Math.max(this.journal_generation, newest + 1);
+    }
+
+    /**
+     * Start journaling score changes. Called once the server has started.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void startJournal() {
+        if (this.journal != null || DATA_DIRECTORY == null) return;
+        this.finishLoading();
+        this.journal = CustomStatisticsJournal.open(DATA_DIRECTORY, this.open_journal_generation, this.player_dictionary);
+    }
+
+    /**
+     * Close the current journal and open the next generation.
+     * Journals from before the newest snapshot that is known to be on disk are no longer needed,
+     * even if the snapshot being written now never reaches it.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private void rotateJournal() {
+        if (this.journal == null) return;
+        this.journal.close();
+
+        // The previous inline snapshot has been written by now, async ones only once the saver says so.
+        if (this.wrote_inline) this.durable_generation = Math.max(this.durable_generation, this.journal_generation);
+        this.durable_generation = Math.max(this.durable_generation, SAVER.getWrittenGeneration());
+        CustomStatisticsJournal.deleteBefore(DATA_DIRECTORY, this.durable_generation);
+
+        this.open_journal_generation++;
+        this.journal_generation = this.open_journal_generation;
+        this.journal = CustomStatisticsJournal.open(DATA_DIRECTORY, this.open_journal_generation, this.player_dictionary);
+    }
+
+    /**
+     * Flush journaled changes to disk. Called at the end of every tick.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void flushJournal() {
+        if (this.journal != null) this.journal.flush();
+    }
+
+    /**
+     * Stop journaling. Called when the server has stopped, after the final save.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void closeJournal() {
+        if (this.journal == null) return;
+        this.journal.close();
+        this.journal = null;
+    }
+
+    /**
+     * Called by a statistic right before one of its scores changes.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    void onScoreSet(CustomStatistic statistic, int player_id, int value) {
+        if (this.journal != null) this.journal.recordSet(statistic, player_id, value);
+    }
+
+    void onScoreAdded(CustomStatistic statistic, int player_id, int amount) {
+        if (this.journal != null) this.journal.recordAdd(statistic, player_id, amount);
+    }
+
+    /**
+     * Called by a statistic right after one of its scores changed.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    void onScoreChanged(CustomStatistic statistic, int player_id, int new_value) {
+        if (this.score_presence == null) return;
+        int slot = this.presence_slots.getInt(statistic);
+        if (slot == -1) return;
+        this.score_presence.computeIfAbsent(player_id, id -> new BitSet()).set(slot, new_value != 0);
+    }
+
+    /**
+     * Get the statistics the given player has a score (that isn't 0) in,
+     * as positions in the list returned by {@link #getCustomStatistics()}.
+     * The returned set is live and should not be modified.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public BitSet getScorePresence(String player_name) {
+        if (this.score_presence == null) {
+            this.score_presence = new Int2ObjectOpenHashMap<>();
+            this.presence_slots.clear();
+            this.presence_slots.defaultReturnValue(-1);
+            for (int slot = 0; slot < customStatisticList.size(); slot++) {
+                int current_slot = slot;
+                CustomStatistic statistic = customStatisticList.get(slot);
+                this.presence_slots.put(statistic, slot);
+                statistic.forEachScore((name, score) -> {
+                    if (score != 0)
+                        this.score_presence.computeIfAbsent(player_dictionary.getOrCreateId(name), id -> new BitSet()).set(current_slot);
+                });
+            }
+        }
+
+        // Only resolve the player once the stored scores have added every player to the dictionary.
+        return this.score_presence.getOrDefault(player_dictionary.getId(player_name), NO_SCORES);
+    }
+
+    /**
+     * Apply many score changes in one pass.
+     * The component is only marked dirty once, and rankings that would see most of their players change
+     * are rebuilt once afterwards instead of being updated player by player.
+     * Returns the amount of scores that were changed.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int applyMutations(Collection<CustomStatisticMutation> mutations) {
+        int changed = 0;
+        this.applying_mutations = true;
+        try {
+            for (CustomStatisticMutation mutation : mutations) {
+                // Big changes rebuild the ranking afterwards.
+                ScoreColumn column = mutation.statistic().getScoreColumn();
+                if (mutation.targets().size() >= BULK_RANKING_THRESHOLD && mutation.targets().size() * 4 >= column.size())
+                    column.dropRanking();
+
+                for (String target : mutation.targets()) {
+                    if (target == null || target.isEmpty()) continue;
+                    mutation.operation().apply(mutation.statistic(), target, mutation.amount());
+                    changed++;
+                }
+            }
+        } finally {
+            this.applying_mutations = false;
+        }
+
+        if (changed > 0) this.markDirty();
+        return changed;
+    }
+
+    boolean isApplyingMutations() { return this.applying_mutations; }
+
+    /**
+     * Are journaled score changes being replayed? Those already happened before the restart,
+     * so they aren't reported as new changes.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    boolean isReplayingJournal() { return this.replaying_journal; }
+
+    /**
+     * Get a custom statistic out of the list via its full identifier.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public CustomStatistic getCustomStatistic(Identifier key) {
+        if (key.getNamespace().equals("bbstats")) return statistics_by_path.get(key.getPath());
+        for (CustomStatistic statistic : customStatisticList)
+            if (statistic.getKey().equals(key)) return statistic;
+        return null;
+    }
+
     /**
      * Get a custom statistic out of the list via key.
      *
@@ -87,10 +442,8 @@ public class CustomStatisticsComponent implements Component.Global {
      * @since    0.2.0
      */
     public CustomStatistic getCustomStatistic(String key) {
-        Identifier key_identifier = Identifier.of("bbstats", key);
-        for (CustomStatistic statistic : customStatisticList)
-            if (statistic.getKey().equals(key_identifier)) return statistic;
-        return null;
+        if (key == null) return null;
+        return statistics_by_path.get(key);
     }
 
     /**
@@ -123,20 +476,16 @@ public class CustomStatisticsComponent implements Component.Global {
         if (player != null) {
             String player_name = player.getName().getString();
 
-            // If pertainability is owned, get all that have matching UUIDs in ownership.
+            // If pertainability is owned, get all that have a matching name in ownership.
             if (pertainability == CustomStatisticPertainability.OWNS) {
-                customStatisticList.forEach(customStatistic -> {
-                    if (customStatistic.getOwner().equals(player_name))
-                        returned_list.add(customStatistic);
-                });
+                LinkedHashSet<CustomStatistic> owned = statistics_by_owner.get(player_name);
+                if (owned != null) returned_list.addAll(owned);
             }
 
-            // If pertainability is maintains, get all that have matching UUIDs in maintainers.
+            // If pertainability is maintains, get all that have a matching name in maintainers.
             else if (pertainability == CustomStatisticPertainability.MAINTAINS) {
-                customStatisticList.forEach(customStatistic -> {
-                    if (customStatistic.isMaintainer(player_name))
-                        returned_list.add(customStatistic);
-                });
+                LinkedHashSet<CustomStatistic> maintained = statistics_by_maintainer.get(player_name);
+                if (maintained != null) returned_list.addAll(maintained);
             }
         }
 
@@ -156,8 +505,11 @@ public class CustomStatisticsComponent implements Component.Global {
             return 0;
 
         // Create and add a new CustomStatistic.
-        CustomStatistic new_stat = new CustomStatistic(Identifier.of("bbstats", key), name, owner_name);
-        customStatisticList.add(new_stat);
+        Identifier key_identifier = Identifier.of("bbstats", key);
+        if (key_identifier == null)
+            return 0;
+        CustomStatistic new_stat = new CustomStatistic(key_identifier, name, owner_name, player_dictionary);
+        this.addToIndexes(new_stat);
         this.markDirty();
         return 1;
     }
@@ -170,11 +522,92 @@ public class CustomStatisticsComponent implements Component.Global {
      */
     public int deleteCustomStatistic(CustomStatistic statistic) {
         // Remove.
-        customStatisticList.remove(statistic);
+        if (!customStatisticList.remove(statistic))
+            return 0;
+        this.removeFromIndexes(statistic);
         this.markDirty();
         return 1;
     }
 
+    /**
+     * Add a statistic to the list and to every lookup index.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private void addToIndexes(CustomStatistic statistic) {
+        // Only stats in the bbstats namespace can be looked up by their path.
+        if (statistic.getKey().getNamespace().equals("bbstats")) {
+            if (statistics_by_path.containsKey(statistic.getKey().getPath())) {
+                BlackBlockTopper.LOGGER.error("Skipping duplicate custom statistic " + statistic.getKey() + "!");
+                return;
+            }
+            statistics_by_path.put(statistic.getKey().getPath(), statistic);
+        }
+
+        // Add to the list & the owner/maintainer indexes.
+        customStatisticList.add(statistic);
+        indexPlayer(statistics_by_owner, statistic.getOwner(), statistic);
+        for (String maintainer : statistic.getMaintainers())
+            indexPlayer(statistics_by_maintainer, maintainer, statistic);
+        statistic.setComponent(this);
+        this.score_presence = null;
+    }
+
+    /**
+     * Remove a statistic from every lookup index.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private void removeFromIndexes(CustomStatistic statistic) {
+        statistics_by_path.remove(statistic.getKey().getPath(), statistic);
+        unindexPlayer(statistics_by_owner, statistic.getOwner(), statistic);
+        for (String maintainer : statistic.getMaintainers())
+            unindexPlayer(statistics_by_maintainer, maintainer, statistic);
+        statistic.setComponent(null);
+        this.score_presence = null;
+    }
+
+    /**
+     * Called by a statistic after its owner changed.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    void onOwnerChanged(CustomStatistic statistic, String previous_owner) {
+        unindexPlayer(statistics_by_owner, previous_owner, statistic);
+        indexPlayer(statistics_by_owner, statistic.getOwner(), statistic);
+    }
+
+    /**
+     * Called by a statistic after a maintainer was added or removed.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    void onMaintainerAdded(CustomStatistic statistic, String maintainer) { indexPlayer(statistics_by_maintainer, maintainer, statistic); }
+    void onMaintainerRemoved(CustomStatistic statistic, String maintainer) { unindexPlayer(statistics_by_maintainer, maintainer, statistic); }
+
+    private static void indexPlayer(HashMap<String, LinkedHashSet<CustomStatistic>> index, String player_name, CustomStatistic statistic) {
+        index.computeIfAbsent(player_name, name -> new LinkedHashSet<>()).add(statistic);
+    }
+
+    private static void unindexPlayer(HashMap<String, LinkedHashSet<CustomStatistic>> index, String player_name, CustomStatistic statistic) {
+        LinkedHashSet<CustomStatistic> statistics = index.get(player_name);
+        if (statistics == null) return;
+        statistics.remove(statistic);
+        if (statistics.isEmpty()) index.remove(player_name);
+    }
+
+    /**
+     * Get the dictionary that maps player names to the ids used by every statistic's score column.
+     *
+     * @author   Jade Godwin        <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public PlayerDictionary getPlayerDictionary() { return this.player_dictionary; }
+
     /**
      * Get the CustomStatisticsComponent instance
      *
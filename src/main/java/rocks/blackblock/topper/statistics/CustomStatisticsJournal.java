@@ -0,0 +1,280 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.util.Identifier;
+import rocks.blackblock.topper.BlackBlockTopper;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An append-only binary journal of custom statistic score mutations.
+ *
+ * Every save of the CustomStatisticsComponent starts a new journal "generation",
+ * and the snapshot remembers which generation was started right after it.
+ * On load, every journal of that generation or later is replayed on top of the snapshot.
+ * Journals older than the previous snapshot are deleted at save time, so the snapshot compacts them.
+ *
+ * A journal is a stream of records, each starting with a type byte:
+ * - PLAYER:    a player name, which gets the next player index of this journal
+ * - STATISTIC: a statistic key, which gets the next statistic index of this journal
+ * - SET / ADD: a statistic index, a player index (both varints) and an int value
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class CustomStatisticsJournal implements Closeable {
+
+    private static final String FILE_PREFIX = "blackblock_custom_stats.";
+    private static final String FILE_SUFFIX = ".journal";
+
+    private static final byte PLAYER = 0;
+    private static final byte STATISTIC = 1;
+    private static final byte SET = 2;
+    private static final byte ADD = 3;
+
+    private final Path path;
+    private final PlayerDictionary players;
+    private final DataOutputStream output;
+    private final Reference2IntOpenHashMap<CustomStatistic> statistic_indexes = new Reference2IntOpenHashMap<>();
+    private int[] player_indexes = new int[0];
+    private int player_count = 0;
+    private boolean has_unflushed = false;
+    private boolean failed = false;
+
+    private CustomStatisticsJournal(Path path, PlayerDictionary players) throws IOException {
+        this.path = path;
+        this.players = players;
+        this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile(), true)));
+        this.statistic_indexes.defaultReturnValue(-1);
+    }
+
+    /**
+     * Open the journal of the given generation for appending.
+     * Returns null when the file can't be opened.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static CustomStatisticsJournal open(Path directory, long generation, PlayerDictionary players) {
+        try {
+            Files.createDirectories(directory);
+            return new CustomStatisticsJournal(getPath(directory, generation), players);
+        } catch (IOException e) {
+            BlackBlockTopper.LOGGER.error("Failed to open the custom statistics journal", e);
+            return null;
+        }
+    }
+
+    /**
+     * Record a score that was set or added to.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void recordSet(CustomStatistic statistic, int player_id, int value) { this.record(SET, statistic, player_id, value); }
+    public void recordAdd(CustomStatistic statistic, int player_id, int amount) { this.record(ADD, statistic, player_id, amount); }
+
+    private void record(byte type, CustomStatistic statistic, int player_id, int value) {
+        if (this.failed) return;
+
+        try {
+            int statistic_index = this.getStatisticIndex(statistic);
+            int player_index = this.getPlayerIndex(player_id);
+            this.output.writeByte(type);
+            writeVarInt(this.output, statistic_index);
+            writeVarInt(this.output, player_index);
+            this.output.writeInt(value);
+            this.has_unflushed = true;
+        } catch (IOException e) {
+            this.failed = true;
+            BlackBlockTopper.LOGGER.error("Failed to write to the custom statistics journal " + this.path + ", journaling is disabled until the next save", e);
+        }
+    }
+
+    /**
+     * Get the journal index of a statistic, writing its definition the first time it's seen.
+     */
+    private int getStatisticIndex(CustomStatistic statistic) throws IOException {
+        int index = this.statistic_indexes.getInt(statistic);
+        if (index != -1) return index;
+
+        index = this.statistic_indexes.size();
+        this.output.writeByte(STATISTIC);
+        this.output.writeUTF(statistic.getKey().toString());
+        this.statistic_indexes.put(statistic, index);
+        return index;
+    }
+
+    /**
+     * Get the journal index of a player, writing their name the first time they're seen.
+     */
+    private int getPlayerIndex(int player_id) throws IOException {
+        if (player_id >= this.player_indexes.length) {
+            int old_length = this.player_indexes.length;
+            this.player_indexes = Arrays.copyOf(this.player_indexes, Math.max(player_id + 1, old_length * 2));
+            Arrays.fill(this.player_indexes, old_length, this.player_indexes.length, -1);
+        }
+
+        int index = this.player_indexes[player_id];
+        if (index != -1) return index;
+
+        index = this.player_count++;
+        this.output.writeByte(PLAYER);
+        this.output.writeUTF(this.players.getName(player_id));
+        this.player_indexes[player_id] = index;
+        return index;
+    }
+
+    /**
+     * Push buffered records to the file. Called once per tick.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void flush() {
+        if (!this.has_unflushed || this.failed) return;
+        try {
+            this.output.flush();
+            this.has_unflushed = false;
+        } catch (IOException e) {
+            this.failed = true;
+            BlackBlockTopper.LOGGER.error("Failed to flush the custom statistics journal " + this.path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.flush();
+        try {
+            this.output.close();
+        } catch (IOException e) {
+            BlackBlockTopper.LOGGER.error("Failed to close the custom statistics journal " + this.path, e);
+        }
+    }
+
+    /**
+     * Replay every journal of the given generation or later onto the component, oldest first.
+     * Returns the newest generation found, or -1 if there were none.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static long replay(Path directory, long from_generation, CustomStatisticsComponent component) {
+        long newest = -1;
+        for (long generation : listGenerations(directory)) {
+            if (generation < from_generation) continue;
+            replayFile(getPath(directory, generation), component);
+            newest = generation;
+        }
+        return newest;
+    }
+
+    private static void replayFile(Path path, CustomStatisticsComponent component) {
+        List<CustomStatistic> statistics = new ArrayList<>();
+        List<String> players = new ArrayList<>();
+        int replayed = 0;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int type;
+            while ((type = input.read()) != -1) {
+                switch (type) {
+                    case PLAYER -> players.add(input.readUTF());
+                    case STATISTIC -> {
+                        // Unknown (deleted) statistics are kept as null, so their records get skipped.
+                        Identifier key = Identifier.tryParse(input.readUTF());
+                        statistics.add(key == null ? null : component.getCustomStatistic(key));
+                    }
+                    case SET, ADD -> {
+                        CustomStatistic statistic = statistics.get(readVarInt(input));
+                        String player = players.get(readVarInt(input));
+                        int value = input.readInt();
+                        if (statistic == null) continue;
+                        if (type == SET) statistic.setScore(player, value);
+                        else statistic.addScore(player, value);
+                        replayed++;
+                    }
+                    default -> throw new IOException("Unknown record type " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // A record was cut off by a crash, everything before it is still good.
+            BlackBlockTopper.LOGGER.warn("Custom statistics journal " + path + " ends with an incomplete record");
+        } catch (IOException | IndexOutOfBoundsException e) {
+            BlackBlockTopper.LOGGER.error("Failed to replay the custom statistics journal " + path, e);
+        }
+
+        if (replayed > 0)
+            BlackBlockTopper.LOGGER.info("Replayed " + replayed + " custom statistic score change(s) from " + path.getFileName());
+    }
+
+    /**
+     * Delete every journal older than the given generation.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void deleteBefore(Path directory, long generation) {
+        for (long old_generation : listGenerations(directory)) {
+            if (old_generation >= generation) continue;
+            try {
+                Files.deleteIfExists(getPath(directory, old_generation));
+            } catch (IOException e) {
+                BlackBlockTopper.LOGGER.error("Failed to delete old custom statistics journal " + old_generation, e);
+            }
+        }
+    }
+
+    /**
+     * Get the generations of all journals in the directory, in ascending order.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static long[] listGenerations(Path directory) {
+        if (!Files.isDirectory(directory)) return new long[0];
+
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {}
+            }
+        } catch (IOException e) {
+            BlackBlockTopper.LOGGER.error("Failed to list custom statistics journals", e);
+        }
+
+        return generations.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    public static Path getPath(Path directory, long generation) {
+        return directory.resolve(FILE_PREFIX + generation + FILE_SUFFIX);
+    }
+
+    private static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = input.readByte();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0 && shift < 35);
+        return value;
+    }
+}
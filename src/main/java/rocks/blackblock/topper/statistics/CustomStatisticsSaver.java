@@ -0,0 +1,100 @@
+package rocks.blackblock.topper.statistics;
+
+import net.minecraft.nbt.NbtIo;
+import rocks.blackblock.topper.BlackBlockTopper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes custom statistics snapshots to disk on a background thread.
+ * If a new snapshot arrives while the previous one is still waiting, only the newest one gets written.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class CustomStatisticsSaver {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Blackblock Custom Statistics Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<PendingSnapshot> pending = new AtomicReference<>();
+    private volatile long written_generation = -1;
+
+    /**
+     * Queue a snapshot to be written to the data directory, in the format of the given storage mode.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void submit(CustomStatisticsSnapshot snapshot, Path directory, CustomStatisticsStorage storage) {
+        // Only schedule a write when there wasn't one waiting already; that one will pick up this snapshot.
+        if (this.pending.getAndSet(new PendingSnapshot(snapshot, directory, storage)) == null)
+            this.executor.execute(this::writePending);
+    }
+
+    private void writePending() {
+        PendingSnapshot pending = this.pending.getAndSet(null);
+        if (pending == null) return;
+        CustomStatisticsSnapshot snapshot = pending.snapshot();
+        Path path = pending.directory().resolve(pending.storage().getFileName());
+
+        try {
+            // Write to a temporary file first, so a crash never leaves a half-written file behind.
+            Files.createDirectories(path.getParent());
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                if (pending.storage() == CustomStatisticsStorage.COLUMNAR) CustomStatisticsColumnarFormat.write(snapshot, output);
+                else NbtIo.writeCompressed(snapshot.toNbt(), output);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.written_generation = snapshot.journal_generation();
+
+            // Files in the other formats are older than this one now, so they can go.
+            for (CustomStatisticsStorage other : CustomStatisticsStorage.values())
+                if (other.isExternal() && other != pending.storage())
+                    Files.deleteIfExists(pending.directory().resolve(other.getFileName()));
+        } catch (IOException e) {
+            BlackBlockTopper.LOGGER.error("Failed to save the custom statistics to " + path, e);
+        }
+    }
+
+    /**
+     * Get the journal generation of the last snapshot that actually reached the disk, or -1.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public long getWrittenGeneration() { return this.written_generation; }
+
+    /**
+     * Block until every submitted snapshot has been written.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void awaitCompletion() {
+        try {
+            this.executor.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            BlackBlockTopper.LOGGER.error("Failed to wait for the custom statistics to be saved", e);
+        }
+    }
+
+    /**
+     * A snapshot waiting to be written, together with where & how to write it.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private record PendingSnapshot(CustomStatisticsSnapshot snapshot, Path directory, CustomStatisticsStorage storage) {}
+}
@@ -0,0 +1,58 @@
+package rocks.blackblock.topper.statistics;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+
+import java.util.List;
+
+/**
+ * An immutable capture of all custom statistics, taken on the server thread and saved elsewhere.
+ * The statistic compounds are the statistics' cached NBT, which is never modified after it was created.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public record CustomStatisticsSnapshot(long journal_generation, List<Statistic> statistics) {
+
+    /**
+     * Build the root compound of the snapshot file.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public NbtCompound toNbt() {
+        NbtList list = new NbtList();
+        this.statistics.forEach(statistic -> list.add(statistic.toNbt()));
+
+        NbtCompound tag = new NbtCompound();
+        tag.putLong("journal_generation", this.journal_generation);
+        tag.put("custom_statistics", list);
+        return tag;
+    }
+
+    /**
+     * A single captured statistic.
+     * When the scores were never decoded, the compound has no scores and they are read from the source instead.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public record Statistic(NbtCompound nbt, ScoreSource scores) {
+
+        public void forEachScore(ScoreSource.NamedScoreConsumer consumer) {
+            if (this.scores != null) this.scores.forEach(consumer);
+            else new ScoreSource.Nbt(this.nbt.getCompound("scores")).forEach(consumer);
+        }
+
+        public NbtCompound toNbt() {
+            if (this.scores == null) return this.nbt;
+
+            // Add the scores to a copy, the cached compound must not change.
+            NbtCompound scores = new NbtCompound();
+            this.scores.forEach(scores::putInt);
+            NbtCompound copy = this.nbt.copy();
+            copy.put("scores", scores);
+            return copy;
+        }
+    }
+}
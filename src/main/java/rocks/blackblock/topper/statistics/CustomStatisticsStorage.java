@@ -0,0 +1,37 @@
+package rocks.blackblock.topper.statistics;
+
+import net.minecraft.util.StringIdentifiable;
+
+/**
+ * Where & how the custom statistics get saved.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public enum CustomStatisticsStorage implements StringIdentifiable {
+
+    // Stored inside the component, written on the server thread.
+    COMPONENT("component"),
+
+    // Stored in a separate NBT file, encoded & written on a background thread.
+    ASYNC("async", "blackblock_custom_stats.dat"),
+
+    // Stored in a separate columnar file, encoded & written on a background thread.
+    COLUMNAR("columnar", "blackblock_custom_stats.bin");
+
+    private final String name;
+    private final String file_name;
+
+    private CustomStatisticsStorage(String name) { this(name, null); }
+    private CustomStatisticsStorage(String name, String file_name) { this.name = name; this.file_name = file_name; }
+    public String toString() { return this.asString(); }
+    public String asString() { return this.name; }
+    public String getFileName() { return this.file_name; }
+    public boolean isExternal() { return this.file_name != null; }
+
+    public static CustomStatisticsStorage getByName(String name) {
+        for (CustomStatisticsStorage storage : values())
+            if (storage.name.equals(name)) return storage;
+        return null;
+    }
+}
@@ -0,0 +1,244 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.stat.Stat;
+import net.minecraft.stat.StatHandler;
+import net.minecraft.stat.Stats;
+import net.minecraft.util.Identifier;
+import rocks.blackblock.core.BlackBlockCore;
+import rocks.blackblock.topper.BlackBlockTopper;
+import rocks.blackblock.topper.creative.CreativeItemTable;
+
+import java.util.BitSet;
+
+/**
+ * A per-player copy of the statistics shown on the Statistics screen:
+ * a flat int array with a column for each stat of every creative item, and one value per mod statistic.
+ * It is filled once from the player's stat handler and then kept up to date through setStat,
+ * together with bitmaps of which items & mod statistics are not empty,
+ * so building, filtering & sorting the screen never has to go through the stat maps.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class ItemStatCache {
+
+    private static ModStats MOD_STATS = null;
+
+    private final StatHandler handler;
+    private CreativeItemTable table;
+    private int[] values;
+    private final BitSet non_empty_items = new BitSet();
+    private ModStats mod_stats;
+    private int[] mod_values;
+    private final BitSet non_empty_mod_stats = new BitSet();
+
+    public ItemStatCache(StatHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Get a stat of the item with the given creative ordinal.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int get(int ordinal, int column) {
+        this.ensureFilled();
+        return this.values[ordinal * CreativeItemTable.COLUMNS + column];
+    }
+
+    /**
+     * Get a stat of the given item, or 0 if it isn't a creative item.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int get(Item item, int column) {
+        this.ensureFilled();
+        int ordinal = this.table.getOrdinal(item);
+        return ordinal == -1 ? 0 : this.values[ordinal * CreativeItemTable.COLUMNS + column];
+    }
+
+    /**
+     * See if all stats of the item with the given creative ordinal are 0.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public boolean isEmpty(int ordinal) {
+        this.ensureFilled();
+        return !this.non_empty_items.get(ordinal);
+    }
+
+    /**
+     * Get the ordinals of all items with at least one stat that isn't 0.
+     * The returned set is live and should not be modified.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public BitSet getNonEmptyItems() {
+        this.ensureFilled();
+        return this.non_empty_items;
+    }
+
+    /**
+     * Get the value of the mod statistic at the given index of {@link #getModStats()}.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getModStat(int index) {
+        this.ensureModStatsFilled();
+        return this.mod_values[index];
+    }
+
+    /**
+     * Get the indexes of all mod statistics that aren't 0.
+     * The returned set is live and should not be modified.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public BitSet getNonEmptyModStats() {
+        this.ensureModStatsFilled();
+        return this.non_empty_mod_stats;
+    }
+
+    /**
+     * Called whenever the player's stat handler sets a stat.
+     * Stats that aren't shown on the screen are ignored.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void onStatSet(Stat<?> stat, int value) {
+        // Item stats.
+        if (this.values != null && this.table == CreativeItemTable.get()) {
+            int[] slots = this.table.getStatSlots(stat);
+            if (slots != null) {
+                for (int slot : slots) {
+                    this.values[slot] = value;
+                    this.updateNonEmptyItem(slot / CreativeItemTable.COLUMNS);
+                }
+                return;
+            }
+        }
+
+        // Mod stats.
+        if (this.mod_values != null && this.mod_stats == MOD_STATS) {
+            int index = this.mod_stats.indexes.getInt(stat);
+            if (index == -1) return;
+            this.mod_values[index] = value;
+            this.non_empty_mod_stats.set(index, value != 0);
+        }
+    }
+
+    private void updateNonEmptyItem(int ordinal) {
+        int start = ordinal * CreativeItemTable.COLUMNS;
+        for (int i = start; i < start + CreativeItemTable.COLUMNS; i++) {
+            if (this.values[i] != 0) {
+                this.non_empty_items.set(ordinal);
+                return;
+            }
+        }
+        this.non_empty_items.clear(ordinal);
+    }
+
+    /**
+     * Read every item stat from the stat handler, the first time they're needed
+     * or when the creative item table has changed since.
+     */
+    private void ensureFilled() {
+        CreativeItemTable current = CreativeItemTable.get();
+        if (this.values != null && this.table == current) return;
+
+        this.table = current;
+        this.values = new int[current.size() * CreativeItemTable.COLUMNS];
+        this.non_empty_items.clear();
+        for (int ordinal = 0; ordinal < current.size(); ordinal++) {
+            for (int column = 0; column < CreativeItemTable.COLUMNS; column++) {
+                Stat<?> stat = current.getStat(ordinal, column);
+                if (stat != null)
+                    this.values[ordinal * CreativeItemTable.COLUMNS + column] = this.handler.getStat(stat);
+            }
+            this.updateNonEmptyItem(ordinal);
+        }
+    }
+
+    /**
+     * Read every mod stat from the stat handler, the first time they're needed
+     * or when the mod statistics have changed since.
+     */
+    private void ensureModStatsFilled() {
+        ModStats current = getModStats();
+        if (this.mod_values != null && this.mod_stats == current) return;
+
+        this.mod_stats = current;
+        this.mod_values = new int[current.size()];
+        this.non_empty_mod_stats.clear();
+        for (int i = 0; i < current.size(); i++) {
+            this.mod_values[i] = this.handler.getStat(current.stats[i]);
+            this.non_empty_mod_stats.set(i, this.mod_values[i] != 0);
+        }
+    }
+
+    /**
+     * Get the mod statistics shown on the Statistics screen, resolving them if needed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static ModStats getModStats() {
+        if (MOD_STATS == null) MOD_STATS = new ModStats();
+        return MOD_STATS;
+    }
+
+    /**
+     * Forget the mod statistics, because a new one has been placed on the screen.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void invalidateModStats() {
+        MOD_STATS = null;
+    }
+
+    /**
+     * The mod statistics of BlackBlockTopper.STAT_ITEMS, with their stat handles resolved.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static class ModStats {
+        private final Identifier[] ids;
+        private final Item[] icons;
+        private final Stat<?>[] stats;
+        private final Reference2IntOpenHashMap<Stat<?>> indexes = new Reference2IntOpenHashMap<>();
+
+        private ModStats() {
+            int size = BlackBlockTopper.STAT_ITEMS.size();
+            this.ids = new Identifier[size];
+            this.icons = new Item[size];
+            this.stats = new Stat<?>[size];
+            this.indexes.defaultReturnValue(-1);
+
+            int i = 0;
+            for (var entry : BlackBlockTopper.STAT_ITEMS.entrySet()) {
+                this.ids[i] = entry.getKey();
+                this.icons[i] = entry.getValue();
+                this.stats[i] = Stats.CUSTOM.getOrCreateStat(entry.getKey(), BlackBlockCore.STAT_FORMATS.get(entry.getKey()).getFormatter());
+                this.indexes.put(this.stats[i], i);
+                i++;
+            }
+        }
+
+        public int size() { return this.ids.length; }
+        public Identifier getId(int index) { return this.ids[index]; }
+        public Item getIcon(int index) { return this.icons[index]; }
+        public Stat<?> getStat(int index) { return this.stats[index]; }
+        public int indexOf(Stat<?> stat) { return this.indexes.getInt(stat); }
+    }
+}
@@ -0,0 +1,11 @@
+package rocks.blackblock.topper.statistics;
+
+/**
+ * Implemented on ServerStatHandler, which keeps an {@link ItemStatCache} of its player.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public interface ItemStatCacheHolder {
+    ItemStatCache blackblock$getItemStatCache();
+}
@@ -0,0 +1,94 @@
+package rocks.blackblock.topper.statistics;
+
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import rocks.blackblock.topper.creative.CreativeItemTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precompiled names & lore lines for item statistics.
+ * The labels, styles and item names never change, so they are built once and shared between all players:
+ * a lore line only allocates the text of its number.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class ItemStatLore {
+
+    public static final Style NAME_STYLE = Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false);
+    public static final Style LINE_STYLE = Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW);
+    public static final Style VALUE_STYLE = Style.EMPTY.withColor(Formatting.WHITE);
+
+    // The labels of the item stat columns, in CreativeItemTable column order.
+    private static final Text[] LABELS = new Text[CreativeItemTable.COLUMNS];
+    static {
+        LABELS[CreativeItemTable.MINED] = Text.literal("Times Mined: ").setStyle(VALUE_STYLE);
+        LABELS[CreativeItemTable.CRAFTED] = Text.literal("Times Crafted: ").setStyle(VALUE_STYLE);
+        LABELS[CreativeItemTable.USED] = Text.literal("Times Used: ").setStyle(VALUE_STYLE);
+        LABELS[CreativeItemTable.BROKEN] = Text.literal("Times Broken: ").setStyle(VALUE_STYLE);
+        LABELS[CreativeItemTable.PICKED_UP] = Text.literal("Picked Up: ").setStyle(VALUE_STYLE);
+        LABELS[CreativeItemTable.DROPPED] = Text.literal("Dropped: ").setStyle(VALUE_STYLE);
+    }
+
+    private static CreativeItemTable TABLE = null;
+    private static Text[] NAMES = null;
+
+    /**
+     * Get the yellow, translatable name of the creative item with the given ordinal.
+     * The names are built once per creative item table.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static Text getName(int ordinal) {
+        CreativeItemTable table = CreativeItemTable.get();
+        if (TABLE != table) {
+            Text[] names = new Text[table.size()];
+            for (int i = 0; i < names.length; i++)
+                names[i] = Text.translatable(table.getItem(i).getTranslationKey()).setStyle(NAME_STYLE);
+            NAMES = names;
+            TABLE = table;
+        }
+        return NAMES[ordinal];
+    }
+
+    /**
+     * Create a single "- Label: value" line.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static MutableText getLine(int column, long value) {
+        return Text.literal("- ").setStyle(LINE_STYLE).append(LABELS[column]).append(Text.literal(String.valueOf(value)).setStyle(VALUE_STYLE));
+    }
+
+    /**
+     * Create the lore lines of all item stat columns.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static List<MutableText> getLore(long[] values) {
+        List<MutableText> lore = new ArrayList<>(CreativeItemTable.COLUMNS);
+        for (int column = 0; column < CreativeItemTable.COLUMNS; column++)
+            lore.add(getLine(column, values[column]));
+        return lore;
+    }
+
+    /**
+     * Create the lore lines of all item stat columns, from a player's cached item stats.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static List<MutableText> getLore(ItemStatCache cache, int ordinal) {
+        List<MutableText> lore = new ArrayList<>(CreativeItemTable.COLUMNS);
+        for (int column = 0; column < CreativeItemTable.COLUMNS; column++)
+            lore.add(getLine(column, cache.get(ordinal, column)));
+        return lore;
+    }
+}
@@ -0,0 +1,136 @@
+package rocks.blackblock.topper.statistics;
+
+import com.mojang.authlib.GameProfile;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import rocks.blackblock.topper.BlackBlockTopper;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Leaderboards of the mod statistics (BlackBlockTopper.STAT_ITEMS), over every player, online or not.
+ *
+ * The rankings are rebuilt periodically in the background, from the offline stats index
+ * with the live values of the online players on top, and published as an immutable snapshot.
+ * Looking at a leaderboard is only a lookup.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class ModStatLeaderboards {
+
+    private static final int REFRESH_TICKS = 20 * 60;
+
+    private static volatile Map<Identifier, Leaderboard> LEADERBOARDS = Map.of();
+    private static CompletableFuture<?> PENDING = null;
+    private static int ticks_until_refresh = 0;
+
+    /**
+     * Called every server tick, rebuilds the leaderboards once a minute.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void tick(MinecraftServer server) {
+        if (--ticks_until_refresh > 0) return;
+        ticks_until_refresh = REFRESH_TICKS;
+        if (PENDING != null && !PENDING.isDone()) return;
+
+        // Capture the live values of the online players on the server thread.
+        ItemStatCache.ModStats mod_stats = ItemStatCache.getModStats();
+        List<ServerPlayerEntity> online_players = server.getPlayerManager().getPlayerList();
+        Map<UUID, String> online_names = new HashMap<>();
+        int[][] online_values = new int[mod_stats.size()][online_players.size()];
+        UUID[] online_uuids = new UUID[online_players.size()];
+        for (int p = 0; p < online_players.size(); p++) {
+            ServerPlayerEntity player = online_players.get(p);
+            online_uuids[p] = player.getUuid();
+            online_names.put(player.getUuid(), player.getName().getString());
+            ItemStatCache cache = ((ItemStatCacheHolder) player.getStatHandler()).blackblock$getItemStatCache();
+            for (int i = 0; i < mod_stats.size(); i++)
+                online_values[i][p] = cache.getModStat(i);
+        }
+
+        // Rank everything in the background.
+        OfflineStatsIndex.Snapshot snapshot = OfflineStatsIndex.getSnapshot();
+        PENDING = CompletableFuture.runAsync(() -> {
+            try {
+                LEADERBOARDS = build(server, mod_stats, snapshot, online_uuids, online_names, online_values);
+            } catch (RuntimeException e) {
+                BlackBlockTopper.LOGGER.error("Failed to rebuild the mod statistic leaderboards", e);
+            }
+        });
+    }
+
+    /**
+     * Get the leaderboard of the given mod statistic, or null if it hasn't been built yet.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static Leaderboard get(Identifier id) { return LEADERBOARDS.get(id); }
+
+    private static Map<Identifier, Leaderboard> build(MinecraftServer server, ItemStatCache.ModStats mod_stats, OfflineStatsIndex.Snapshot snapshot,
+                                                      UUID[] online_uuids, Map<UUID, String> online_names, int[][] online_values) {
+        Map<Identifier, Leaderboard> leaderboards = new HashMap<>();
+        for (int i = 0; i < mod_stats.size(); i++) {
+            // Start with the offline values, then let the online players overwrite theirs.
+            String stat_name = mod_stats.getStat(i).getName();
+            int[] players = snapshot.getColumnPlayers(stat_name);
+            int[] values = snapshot.getColumnValues(stat_name);
+            Map<UUID, Integer> scores = new HashMap<>(players.length + online_uuids.length);
+            for (int j = 0; j < players.length; j++)
+                scores.put(snapshot.getPlayer(players[j]), values[j]);
+            for (int p = 0; p < online_uuids.length; p++) {
+                if (online_values[i][p] != 0) scores.put(online_uuids[p], online_values[i][p]);
+                else scores.remove(online_uuids[p]);
+            }
+
+            // Sort by value, highest first.
+            List<Map.Entry<UUID, Integer>> entries = new ArrayList<>(scores.entrySet());
+            entries.sort(Map.Entry.<UUID, Integer>comparingByValue().reversed());
+
+            UUID[] ranked_uuids = new UUID[entries.size()];
+            String[] ranked_names = new String[entries.size()];
+            int[] ranked_values = new int[entries.size()];
+            Object2IntOpenHashMap<UUID> ranks = new Object2IntOpenHashMap<>(entries.size());
+            ranks.defaultReturnValue(0);
+            for (int j = 0; j < entries.size(); j++) {
+                UUID uuid = entries.get(j).getKey();
+                ranked_uuids[j] = uuid;
+                ranked_values[j] = entries.get(j).getValue();
+                ranked_names[j] = online_names.containsKey(uuid) ? online_names.get(uuid) : getName(server, uuid);
+                ranks.put(uuid, j + 1);
+            }
+            leaderboards.put(mod_stats.getId(i), new Leaderboard(ranked_uuids, ranked_names, ranked_values, ranks));
+        }
+        return leaderboards;
+    }
+
+    private static String getName(MinecraftServer server, UUID uuid) {
+        if (server.getUserCache() == null) return uuid.toString();
+        return server.getUserCache().getByUuid(uuid).map(GameProfile::getName).orElse(uuid.toString());
+    }
+
+    /**
+     * The ranking of a single mod statistic.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public record Leaderboard(UUID[] uuids, String[] names, int[] values, Object2IntOpenHashMap<UUID> ranks) {
+
+        public int size() { return this.uuids.length; }
+
+        /**
+         * Get the 1-based rank of the given player, or 0 if they aren't ranked.
+         *
+         * @author   Jade Godwin          <icanhasabanana@gmail.com>
+         * @since    0.2.1
+         */
+        public int getRank(UUID uuid) { return this.ranks.getInt(uuid); }
+    }
+}
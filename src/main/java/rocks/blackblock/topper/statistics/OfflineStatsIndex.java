@@ -0,0 +1,270 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+import rocks.blackblock.topper.BlackBlockTopper;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * An index of the topper-relevant stats of every player, online or not, read from the world's stats/*.json files.
+ *
+ * The files are parsed in parallel on a fork-join pool, and only re-parsed when their modification time changes.
+ * After each refresh the parsed rows are turned into a compact columnar snapshot:
+ * for every tracked stat, the players that have a non-zero value and those values, in two parallel int arrays.
+ * The snapshot is published through a volatile field, so readers never wait for a refresh.
+ *
+ * Refreshes never run on the server thread.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class OfflineStatsIndex {
+
+    private static final long REFRESH_MINUTES = 5;
+    private static final int FILES_PER_TASK = 64;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Blackblock Offline Stats Index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static ScheduledFuture<?> REFRESH_TASK = null;
+    private static volatile Snapshot SNAPSHOT = Snapshot.EMPTY;
+
+    // Only touched by the scheduler thread.
+    private static final Map<Path, ParsedFile> PARSED_FILES = new HashMap<>();
+    private static Set<String> PARSED_STATS = null;
+
+    /**
+     * Start refreshing the index in the background, right away and then periodically.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void start(MinecraftServer server) {
+        Path directory = server.getSavePath(WorldSavePath.STATS);
+        Set<String> tracked = PlayerStatFiles.getTrackedStatNames();
+        stop();
+        REFRESH_TASK = SCHEDULER.scheduleWithFixedDelay(() -> refresh(directory, tracked), 0, REFRESH_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop refreshing the index.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static void stop() {
+        if (REFRESH_TASK != null) REFRESH_TASK.cancel(false);
+        REFRESH_TASK = null;
+        SNAPSHOT = Snapshot.EMPTY;
+    }
+
+    /**
+     * Get the most recently built snapshot. Never null.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static Snapshot getSnapshot() { return SNAPSHOT; }
+
+    /**
+     * Has the first refresh since starting been completed?
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static boolean hasSnapshot() { return SNAPSHOT != Snapshot.EMPTY; }
+
+    /**
+     * Re-parse every new or modified stat file, then publish a new snapshot.
+     */
+    private static void refresh(Path directory, Set<String> tracked) {
+        try {
+            // A different set of tracked stats means everything has to be parsed again.
+            if (!tracked.equals(PARSED_STATS)) {
+                PARSED_FILES.clear();
+                PARSED_STATS = tracked;
+            }
+
+            // Find the files that changed since they were last parsed.
+            Map<Path, Long> modified_times = new HashMap<>();
+            List<Path> changed = new ArrayList<>();
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+                    for (Path path : stream) {
+                        long modified_time = Files.getLastModifiedTime(path).toMillis();
+                        modified_times.put(path, modified_time);
+                        ParsedFile parsed = PARSED_FILES.get(path);
+                        if (parsed == null || parsed.modified_time() != modified_time)
+                            changed.add(path);
+                    }
+                }
+            }
+
+            // Forget deleted files, and parse the changed ones in parallel.
+            boolean removed = PARSED_FILES.keySet().removeIf(path -> !modified_times.containsKey(path));
+            if (changed.isEmpty() && !removed && SNAPSHOT != Snapshot.EMPTY) return;
+            List<ParsedFile> parsed = ForkJoinPool.commonPool().invoke(new ParseTask(changed, 0, changed.size(), modified_times, tracked));
+            for (ParsedFile file : parsed)
+                PARSED_FILES.put(file.path(), file);
+
+            SNAPSHOT = Snapshot.build(PARSED_FILES.values(), tracked);
+            if (!changed.isEmpty())
+                BlackBlockTopper.LOGGER.info("Re-indexed " + changed.size() + " player stat file(s), " + PARSED_FILES.size() + " player(s) indexed");
+        } catch (IOException | RuntimeException e) {
+            BlackBlockTopper.LOGGER.error("Failed to refresh the offline player stats index", e);
+        }
+    }
+
+    /**
+     * The tracked stats of one player stat file, as parallel arrays of stat names and values.
+     */
+    private record ParsedFile(Path path, UUID uuid, long modified_time, String[] stats, int[] values) {}
+
+    /**
+     * Parses a range of stat files, splitting it in half until it is small enough.
+     */
+    private static class ParseTask extends RecursiveTask<List<ParsedFile>> {
+        private final List<Path> paths;
+        private final int start;
+        private final int end;
+        private final Map<Path, Long> modified_times;
+        private final Set<String> tracked;
+
+        private ParseTask(List<Path> paths, int start, int end, Map<Path, Long> modified_times, Set<String> tracked) {
+            this.paths = paths; this.start = start; this.end = end;
+            this.modified_times = modified_times; this.tracked = tracked;
+        }
+
+        @Override
+        protected List<ParsedFile> compute() {
+            // Split big ranges.
+            if (this.end - this.start > FILES_PER_TASK) {
+                int middle = (this.start + this.end) >>> 1;
+                ParseTask left = new ParseTask(this.paths, this.start, middle, this.modified_times, this.tracked);
+                left.fork();
+                List<ParsedFile> result = new ParseTask(this.paths, middle, this.end, this.modified_times, this.tracked).compute();
+                result.addAll(left.join());
+                return result;
+            }
+
+            // Parse small ones.
+            List<ParsedFile> result = new ArrayList<>(this.end - this.start);
+            for (int i = this.start; i < this.end; i++) {
+                Path path = this.paths.get(i);
+                String file_name = path.getFileName().toString();
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(file_name.substring(0, file_name.length() - ".json".length()));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+
+                List<String> stats = new ArrayList<>();
+                IntArrayList values = new IntArrayList();
+                boolean is_read = PlayerStatFiles.read(path, this.tracked, (name, value) -> {
+                    if (value == 0) return;
+                    stats.add(name);
+                    values.add(value);
+                });
+
+                // A file that can't be read (like one that is being saved) isn't cached, so the next refresh retries it.
+                if (!is_read) continue;
+                result.add(new ParsedFile(path, uuid, this.modified_times.get(path), stats.toArray(new String[0]), values.toIntArray()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * An immutable, columnar view of the index.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new UUID[0], new Object2IntOpenHashMap<>(), new int[0][], new int[0][]);
+
+        private final UUID[] players;
+        private final Object2IntOpenHashMap<String> stat_indexes;
+        private final int[][] column_players;
+        private final int[][] column_values;
+
+        private Snapshot(UUID[] players, Object2IntOpenHashMap<String> stat_indexes, int[][] column_players, int[][] column_values) {
+            this.players = players;
+            this.stat_indexes = stat_indexes;
+            this.column_players = column_players;
+            this.column_values = column_values;
+            this.stat_indexes.defaultReturnValue(-1);
+        }
+
+        private static Snapshot build(Collection<ParsedFile> files, Set<String> tracked) {
+            // Give every player & stat an index.
+            UUID[] players = new UUID[files.size()];
+            Object2IntOpenHashMap<String> stat_indexes = new Object2IntOpenHashMap<>();
+            for (String name : tracked)
+                stat_indexes.put(name, stat_indexes.size());
+
+            // Gather the columns.
+            IntArrayList[] player_columns = new IntArrayList[stat_indexes.size()];
+            IntArrayList[] value_columns = new IntArrayList[stat_indexes.size()];
+            for (int i = 0; i < player_columns.length; i++) {
+                player_columns[i] = new IntArrayList();
+                value_columns[i] = new IntArrayList();
+            }
+            int player = 0;
+            for (ParsedFile file : files) {
+                players[player] = file.uuid();
+                for (int i = 0; i < file.stats().length; i++) {
+                    int stat = stat_indexes.getInt(file.stats()[i]);
+                    player_columns[stat].add(player);
+                    value_columns[stat].add(file.values()[i]);
+                }
+                player++;
+            }
+
+            int[][] column_players = new int[player_columns.length][];
+            int[][] column_values = new int[value_columns.length][];
+            for (int i = 0; i < player_columns.length; i++) {
+                column_players[i] = player_columns[i].toIntArray();
+                column_values[i] = value_columns[i].toIntArray();
+            }
+            return new Snapshot(players, stat_indexes, column_players, column_values);
+        }
+
+        public int getPlayerCount() { return this.players.length; }
+        public UUID getPlayer(int index) { return this.players[index]; }
+
+        /**
+         * Get the players with a non-zero value for the given stat, as indexes for {@link #getPlayer(int)}.
+         * Returns an empty array for stats that aren't indexed.
+         *
+         * @author   Jade Godwin          <icanhasabanana@gmail.com>
+         * @since    0.2.1
+         */
+        public int[] getColumnPlayers(String stat_name) {
+            int index = this.stat_indexes.getInt(stat_name);
+            return index == -1 ? new int[0] : this.column_players[index];
+        }
+
+        /**
+         * Get the values for the given stat, parallel to {@link #getColumnPlayers(String)}.
+         *
+         * @author   Jade Godwin          <icanhasabanana@gmail.com>
+         * @since    0.2.1
+         */
+        public int[] getColumnValues(String stat_name) {
+            int index = this.stat_indexes.getInt(stat_name);
+            return index == -1 ? new int[0] : this.column_values[index];
+        }
+    }
+}
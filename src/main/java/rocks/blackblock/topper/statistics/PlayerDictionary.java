@@ -0,0 +1,58 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps every player name that has ever been given a custom statistic score to a small, dense int id.
+ * The ids are shared by all statistics of a component, so each name is only stored once
+ * and scores can live in primitive columns indexed by id.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class PlayerDictionary {
+
+    private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public PlayerDictionary() {
+        this.ids.defaultReturnValue(-1);
+    }
+
+    /**
+     * Get the id of the given player, or -1 if they have never been seen.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getId(String name) { return this.ids.getInt(name); }
+
+    /**
+     * Get the id of the given player, assigning a new one if needed.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int getOrCreateId(String name) {
+        int id = this.ids.getInt(name);
+        if (id != -1) return id;
+
+        // Assign the next id.
+        id = this.names.size();
+        this.names.add(name);
+        this.ids.put(name, id);
+        return id;
+    }
+
+    /**
+     * Getters for the name of an id and the amount of known players.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public String getName(int id) { return this.names.get(id); }
+    public int size() { return this.names.size(); }
+}
@@ -0,0 +1,91 @@
+package rocks.blackblock.topper.statistics;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.stat.Stat;
+import rocks.blackblock.topper.BlackBlockTopper;
+import rocks.blackblock.topper.creative.CreativeItemTable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Helpers for reading the vanilla player stat files in world/stats.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class PlayerStatFiles {
+
+    /**
+     * Get the names of every stat shown on the Statistics screen:
+     * the stats of the creative items and the mod statistics.
+     * Should be called on the server thread.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static Set<String> getTrackedStatNames() {
+        Set<String> tracked = new HashSet<>();
+        for (Stat<?> stat : getTrackedStats())
+            tracked.add(stat.getName());
+        return tracked;
+    }
+
+    /**
+     * Get every stat shown on the Statistics screen, each only once.
+     * Should be called on the server thread.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static Set<Stat<?>> getTrackedStats() {
+        Set<Stat<?>> tracked = new ReferenceOpenHashSet<>();
+        CreativeItemTable table = CreativeItemTable.get();
+        for (int ordinal = 0; ordinal < table.size(); ordinal++)
+            for (int column = 0; column < CreativeItemTable.COLUMNS; column++)
+                if (table.getStat(ordinal, column) != null)
+                    tracked.add(table.getStat(ordinal, column));
+        ItemStatCache.ModStats mod_stats = ItemStatCache.getModStats();
+        for (int i = 0; i < mod_stats.size(); i++)
+            tracked.add(mod_stats.getStat(i));
+        return tracked;
+    }
+
+    /**
+     * Read the tracked stats of a single player stat file.
+     * Stat files look like {"stats": {"minecraft:mined": {"minecraft:stone": 5}}},
+     * which is the stat named "minecraft.mined:minecraft.stone".
+     * Returns false if the file could not be read.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static boolean read(Path path, Set<String> tracked, ObjIntConsumer<String> consumer) {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            JsonElement root = JsonParser.parseReader(reader);
+            if (!root.isJsonObject() || !root.getAsJsonObject().has("stats")) return true;
+
+            for (Map.Entry<String, JsonElement> type : root.getAsJsonObject().getAsJsonObject("stats").entrySet()) {
+                if (!type.getValue().isJsonObject()) continue;
+                String type_name = type.getKey().replace(':', '.');
+                for (Map.Entry<String, JsonElement> value : type.getValue().getAsJsonObject().entrySet()) {
+                    String name = type_name + ":" + value.getKey().replace(':', '.');
+                    if (tracked.contains(name))
+                        consumer.accept(name, value.getValue().getAsInt());
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            BlackBlockTopper.LOGGER.error("Failed to read the player stat file " + path, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+import java.util.Arrays;
+
+/**
+ * A column of primitive scores, indexed by {@link PlayerDictionary} id.
+ * Players that never received a score are tracked separately from players with a score of 0,
+ * so listings keep showing players whose score was reset.
+ * Once a ranking has been requested, it is kept up to date on every change.
+ *
+ * The dictionary is shared by every statistic, so a statistic only a few players have would waste
+ * an array slot for every known player. Columns therefore start out sparse, as a hash map of id to score,
+ * and only switch to dense arrays once enough of their id range is in use.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class ScoreColumn {
+
+    // Switch to dense arrays once at least this many players have a score...
+    private static final int DENSE_MIN_COUNT = 64;
+    // ... and they take up at least 1 in this many ids. Around there, the arrays are smaller than the map.
+    private static final int DENSE_MAX_SPREAD = 5;
+
+    private Int2IntOpenHashMap sparse = new Int2IntOpenHashMap();
+    private int max_id = -1;
+    private int[] values = null;
+    private long[] present = null;
+    private int count = 0;
+    private ScoreRanking ranking = null;
+
+    /**
+     * Getters for a single score, whether a player has a score and the amount of scored players.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int get(int id) {
+        if (this.sparse != null) return this.sparse.get(id);
+        return id >= 0 && id < this.values.length ? this.values[id] : 0;
+    }
+    public boolean has(int id) {
+        if (this.sparse != null) return this.sparse.containsKey(id);
+        return id >= 0 && (id >> 6) < this.present.length && (this.present[id >> 6] & (1L << id)) != 0;
+    }
+    public int size() { return this.count; }
+
+    /**
+     * Set a score, returning the new value.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int set(int id, int value) {
+        this.unrank(id);
+        this.store(id, value);
+        this.rank(id);
+        return value;
+    }
+
+    /**
+     * Add to a score, returning the new value.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int add(int id, int amount) {
+        int value = this.get(id) + amount;
+        this.unrank(id);
+        this.store(id, value);
+        this.rank(id);
+        return value;
+    }
+
+    /**
+     * Throw the ranking away, so it gets rebuilt in one go the next time it is requested.
+     * Cheaper than updating it one player at a time when most of the column is about to change.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void dropRanking() { this.ranking = null; }
+
+    /**
+     * Get the ranking of this column, building it the first time it is requested.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public ScoreRanking getRanking() {
+        if (this.ranking == null) {
+            ScoreRanking ranking = new ScoreRanking(this);
+            this.forEach((id, score) -> ranking.insert(id));
+            this.ranking = ranking;
+        }
+        return this.ranking;
+    }
+
+    /**
+     * Iterate over every scored player, in id order.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void forEach(ScoreConsumer consumer) {
+        if (this.sparse != null) {
+            int[] ids = this.sparse.keySet().toIntArray();
+            Arrays.sort(ids);
+            for (int id : ids)
+                consumer.accept(id, this.sparse.get(id));
+            return;
+        }
+
+        for (int word = 0; word < this.present.length; word++) {
+            long bits = this.present[word];
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                consumer.accept(id, this.values[id]);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private void unrank(int id) {
+        if (this.ranking != null && this.has(id)) this.ranking.remove(id);
+    }
+
+    private void rank(int id) {
+        if (this.ranking != null) this.ranking.insert(id);
+    }
+
+    private void store(int id, int value) {
+        // Sparse columns only become dense once that is worth it.
+        if (this.sparse != null) {
+            if (!this.sparse.containsKey(id)) this.count++;
+            this.sparse.put(id, value);
+            this.max_id = Math.max(this.max_id, id);
+            if (this.count >= DENSE_MIN_COUNT && (long) this.count * DENSE_MAX_SPREAD >= this.max_id + 1L)
+                this.makeDense();
+            return;
+        }
+
+        this.ensureCapacity(id);
+        long bit = 1L << id;
+        if ((this.present[id >> 6] & bit) == 0) {
+            this.present[id >> 6] |= bit;
+            this.count++;
+        }
+        this.values[id] = value;
+    }
+
+    private void makeDense() {
+        Int2IntOpenHashMap sparse = this.sparse;
+        this.sparse = null;
+        this.values = new int[this.max_id + 1];
+        this.present = new long[(this.max_id >> 6) + 1];
+        for (Int2IntMap.Entry entry : sparse.int2IntEntrySet()) {
+            int id = entry.getIntKey();
+            this.values[id] = entry.getIntValue();
+            this.present[id >> 6] |= 1L << id;
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= this.values.length)
+            this.values = Arrays.copyOf(this.values, Math.max(id + 1, this.values.length * 2));
+        if ((id >> 6) >= this.present.length)
+            this.present = Arrays.copyOf(this.present, Math.max((id >> 6) + 1, this.present.length * 2));
+    }
+
+    /**
+     * Receives a player id & score without boxing.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @FunctionalInterface
+    public interface ScoreConsumer {
+        void accept(int id, int score);
+    }
+}
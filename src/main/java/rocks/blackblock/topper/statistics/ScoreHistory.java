@@ -0,0 +1,193 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+
+/**
+ * The score changes of a custom statistic over time.
+ *
+ * Changes are added to the bucket of the current hour and the bucket of the current day.
+ * Those buckets live in two rings: one with an hourly bucket for the last week, and one with a daily bucket for the last year.
+ * A bucket only stores the players whose score changed in it, together with the change,
+ * so the cost stays proportional to the amount of changes instead of the amount of players.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class ScoreHistory {
+
+    public static final int HOURS = 24 * 7;
+    public static final int DAYS = 365;
+    private static final long MILLIS_PER_HOUR = 60 * 60 * 1000;
+
+    private final Ring hourly = new Ring(HOURS, 1);
+    private final Ring daily = new Ring(DAYS, 24);
+
+    /**
+     * Record a change of a player's score, at the current time.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void record(int player_id, int delta) {
+        if (delta == 0) return;
+        long hour = getCurrentHour();
+        this.hourly.add(hour, player_id, delta);
+        this.daily.add(hour, player_id, delta);
+    }
+
+    /**
+     * Get how much a player's score changed over the given amount of hours, up to now.
+     * Windows up to a week are exact to the hour, longer ones are rounded up to whole days (of at most a year).
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public long getChange(int player_id, int hours) {
+        if (player_id < 0) return 0;
+        return this.getRing(hours).getChange(getCurrentHour(), this.getBucketCount(hours), player_id);
+    }
+
+    /**
+     * Get how much every player's score changed over the given amount of hours.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public Int2IntOpenHashMap getChanges(int hours) {
+        return this.getRing(hours).getChanges(getCurrentHour(), this.getBucketCount(hours));
+    }
+
+    private Ring getRing(int hours) { return hours <= HOURS ? this.hourly : this.daily; }
+    private int getBucketCount(int hours) { return hours <= HOURS ? Math.max(1, hours) : Math.min(DAYS, (hours + 23) / 24); }
+
+    /**
+     * See if there are no changes left in the windows that can still be queried.
+     * Buckets that have fallen out of their ring's window don't count.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public boolean isEmpty() {
+        long hour = getCurrentHour();
+        return this.hourly.isEmpty(hour) && this.daily.isEmpty(hour);
+    }
+
+    private static long getCurrentHour() { return System.currentTimeMillis() / MILLIS_PER_HOUR; }
+
+    /**
+     * Write the buckets that are still in range.
+     * Players are stored by name, because dictionary ids are not stable between loads.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public NbtCompound toNbt(PlayerDictionary players) {
+        long hour = getCurrentHour();
+        NbtCompound tag = new NbtCompound();
+        tag.put("hourly", this.hourly.toNbt(hour, players));
+        tag.put("daily", this.daily.toNbt(hour, players));
+        return tag;
+    }
+
+    public void readNbt(NbtCompound tag, PlayerDictionary players) {
+        this.hourly.readNbt(tag.getList("hourly", NbtElement.COMPOUND_TYPE), players);
+        this.daily.readNbt(tag.getList("daily", NbtElement.COMPOUND_TYPE), players);
+    }
+
+    /**
+     * A fixed amount of buckets, each covering the given amount of hours.
+     * Slots get reused once their bucket is too old.
+     */
+    private static class Ring {
+        private final int size;
+        private final int hours_per_bucket;
+        private final long[] buckets;
+        private final Int2IntOpenHashMap[] changes;
+
+        private Ring(int size, int hours_per_bucket) {
+            this.size = size;
+            this.hours_per_bucket = hours_per_bucket;
+            this.buckets = new long[size];
+            this.changes = new Int2IntOpenHashMap[size];
+        }
+
+        private void add(long hour, int player_id, int delta) {
+            long bucket = hour / this.hours_per_bucket;
+            int slot = (int) Math.floorMod(bucket, (long) this.size);
+            if (this.changes[slot] == null || this.buckets[slot] != bucket) {
+                this.changes[slot] = new Int2IntOpenHashMap();
+                this.buckets[slot] = bucket;
+            }
+            this.changes[slot].addTo(player_id, delta);
+        }
+
+        private boolean isInRange(int slot, long current_bucket, int count) {
+            return this.changes[slot] != null && this.buckets[slot] <= current_bucket && this.buckets[slot] > current_bucket - count;
+        }
+
+        private long getChange(long hour, int count, int player_id) {
+            long current_bucket = hour / this.hours_per_bucket;
+            long change = 0;
+            for (int slot = 0; slot < this.size; slot++)
+                if (this.isInRange(slot, current_bucket, count))
+                    change += this.changes[slot].get(player_id);
+            return change;
+        }
+
+        private Int2IntOpenHashMap getChanges(long hour, int count) {
+            long current_bucket = hour / this.hours_per_bucket;
+            Int2IntOpenHashMap result = new Int2IntOpenHashMap();
+            for (int slot = 0; slot < this.size; slot++)
+                if (this.isInRange(slot, current_bucket, count))
+                    for (Int2IntMap.Entry entry : this.changes[slot].int2IntEntrySet())
+                        result.addTo(entry.getIntKey(), entry.getIntValue());
+            return result;
+        }
+
+        private boolean isEmpty(long hour) {
+            long current_bucket = hour / this.hours_per_bucket;
+            for (int slot = 0; slot < this.size; slot++)
+                if (this.isInRange(slot, current_bucket, this.size) && !this.changes[slot].isEmpty()) return false;
+            return true;
+        }
+
+        private NbtList toNbt(long hour, PlayerDictionary players) {
+            long current_bucket = hour / this.hours_per_bucket;
+            NbtList list = new NbtList();
+            for (int slot = 0; slot < this.size; slot++) {
+                if (!this.isInRange(slot, current_bucket, this.size) || this.changes[slot].isEmpty()) continue;
+
+                NbtList names = new NbtList();
+                int[] deltas = new int[this.changes[slot].size()];
+                int i = 0;
+                for (Int2IntMap.Entry entry : this.changes[slot].int2IntEntrySet()) {
+                    names.add(NbtString.of(players.getName(entry.getIntKey())));
+                    deltas[i++] = entry.getIntValue();
+                }
+
+                NbtCompound bucket = new NbtCompound();
+                bucket.putLong("bucket", this.buckets[slot]);
+                bucket.put("players", names);
+                bucket.putIntArray("deltas", deltas);
+                list.add(bucket);
+            }
+            return list;
+        }
+
+        private void readNbt(NbtList list, PlayerDictionary players) {
+            for (int i = 0; i < list.size(); i++) {
+                NbtCompound bucket = list.getCompound(i);
+                NbtList names = bucket.getList("players", NbtElement.STRING_TYPE);
+                int[] deltas = bucket.getIntArray("deltas");
+                long hour = bucket.getLong("bucket") * this.hours_per_bucket;
+                for (int j = 0; j < Math.min(names.size(), deltas.length); j++)
+                    this.add(hour, players.getOrCreateId(names.getString(j)), deltas[j]);
+            }
+        }
+    }
+}
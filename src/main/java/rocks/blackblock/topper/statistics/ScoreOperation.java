@@ -0,0 +1,44 @@
+package rocks.blackblock.topper.statistics;
+
+import net.minecraft.util.StringIdentifiable;
+
+/**
+ * The ways a custom statistic score can be changed.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public enum ScoreOperation implements StringIdentifiable {
+
+    ADD("add"),
+    REMOVE("remove"),
+    SET("set"),
+    RESET("reset");
+
+    private final String name;
+
+    private ScoreOperation(String name) { this.name = name; }
+    public String toString() { return this.asString(); }
+    public String asString() { return this.name; }
+
+    public static ScoreOperation getByName(String name) {
+        for (ScoreOperation operation : values())
+            if (operation.name.equals(name)) return operation;
+        return null;
+    }
+
+    /**
+     * Apply this operation to the given player's score, returning the new score.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int apply(CustomStatistic statistic, String target, int amount) {
+        return switch (this) {
+            case ADD -> statistic.addScore(target, amount);
+            case REMOVE -> statistic.removeScore(target, amount);
+            case SET -> statistic.setScore(target, amount);
+            case RESET -> statistic.resetScore(target);
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package rocks.blackblock.topper.statistics;
+
+import java.util.Arrays;
+
+/**
+ * An order-statistic tree over the players of a {@link ScoreColumn}.
+ * Players are ranked by score (highest first), ties are broken by player id.
+ *
+ * This is a treap where every node is a player id, so it only needs a few int arrays and never allocates per update.
+ * Node priorities are derived from a hash of the player id.
+ * The column has to remove a player before changing their score, and re-insert them afterwards.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class ScoreRanking {
+
+    private static final int NONE = -1;
+
+    private final ScoreColumn column;
+    private int[] left = new int[0];
+    private int[] right = new int[0];
+    private int[] size = new int[0];
+    private int root = NONE;
+
+    // Results of the last split.
+    private int split_left = NONE;
+    private int split_right = NONE;
+
+    public ScoreRanking(ScoreColumn column) {
+        this.column = column;
+    }
+
+    /**
+     * Get the amount of ranked players.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int size() { return this.sizeOf(this.root); }
+
+    /**
+     * Insert a player, using their current score in the column.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void insert(int id) {
+        this.ensureCapacity(id);
+        this.left[id] = NONE;
+        this.right[id] = NONE;
+        this.size[id] = 1;
+        this.root = this.insert(this.root, id);
+    }
+
+    /**
+     * Remove a player. Must be called while the column still holds the score they were inserted with.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void remove(int id) {
+        this.root = this.remove(this.root, id);
+    }
+
+    /**
+     * Get the 0-based rank of a player, or -1 if they are not ranked.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int rankOf(int id) {
+        int rank = 0;
+        int node = this.root;
+        while (node != NONE) {
+            if (node == id) return rank + this.sizeOf(this.left[node]);
+            if (this.before(id, node)) {
+                node = this.left[node];
+            } else {
+                rank += this.sizeOf(this.left[node]) + 1;
+                node = this.right[node];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the player at the given 0-based rank, or -1 if the rank is out of bounds.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public int select(int rank) {
+        if (rank < 0 || rank >= this.size()) return NONE;
+        int node = this.root;
+        while (node != NONE) {
+            int left_size = this.sizeOf(this.left[node]);
+            if (rank < left_size) {
+                node = this.left[node];
+            } else if (rank == left_size) {
+                return node;
+            } else {
+                rank -= left_size + 1;
+                node = this.right[node];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Does player a rank before player b?
+     */
+    private boolean before(int a, int b) {
+        int score_a = this.column.get(a);
+        int score_b = this.column.get(b);
+        if (score_a != score_b) return score_a > score_b;
+        return a < b;
+    }
+
+    private int insert(int node, int id) {
+        if (node == NONE) return id;
+
+        // The new node becomes the root of this subtree if it has a higher priority.
+        if (priority(id) > priority(node)) {
+            this.split(node, id);
+            this.left[id] = this.split_left;
+            this.right[id] = this.split_right;
+            this.update(id);
+            return id;
+        }
+
+        // Otherwise descend.
+        if (this.before(id, node)) this.left[node] = this.insert(this.left[node], id);
+        else this.right[node] = this.insert(this.right[node], id);
+        this.update(node);
+        return node;
+    }
+
+    private int remove(int node, int id) {
+        if (node == NONE) return NONE;
+        if (node == id) return this.merge(this.left[node], this.right[node]);
+        if (this.before(id, node)) this.left[node] = this.remove(this.left[node], id);
+        else this.right[node] = this.remove(this.right[node], id);
+        this.update(node);
+        return node;
+    }
+
+    /**
+     * Split the subtree into the nodes that rank before the given id and the nodes that rank after it.
+     */
+    private void split(int node, int id) {
+        if (node == NONE) {
+            this.split_left = NONE;
+            this.split_right = NONE;
+            return;
+        }
+
+        if (this.before(node, id)) {
+            this.split(this.right[node], id);
+            this.right[node] = this.split_left;
+            this.update(node);
+            this.split_left = node;
+        } else {
+            this.split(this.left[node], id);
+            this.left[node] = this.split_right;
+            this.update(node);
+            this.split_right = node;
+        }
+    }
+
+    /**
+     * Merge two subtrees, where every node of a ranks before every node of b.
+     */
+    private int merge(int a, int b) {
+        if (a == NONE) return b;
+        if (b == NONE) return a;
+        if (priority(a) > priority(b)) {
+            this.right[a] = this.merge(this.right[a], b);
+            this.update(a);
+            return a;
+        }
+        this.left[b] = this.merge(a, this.left[b]);
+        this.update(b);
+        return b;
+    }
+
+    private void update(int node) {
+        this.size[node] = 1 + this.sizeOf(this.left[node]) + this.sizeOf(this.right[node]);
+    }
+
+    private int sizeOf(int node) { return node == NONE ? 0 : this.size[node]; }
+
+    private void ensureCapacity(int id) {
+        if (id < this.size.length) return;
+        int new_length = Math.max(id + 1, this.size.length * 2);
+        this.left = Arrays.copyOf(this.left, new_length);
+        this.right = Arrays.copyOf(this.right, new_length);
+        this.size = Arrays.copyOf(this.size, new_length);
+    }
+
+    /**
+     * Pseudo-random, but stable, priority of a node.
+     */
+    private static int priority(int id) {
+        int hash = id * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
@@ -0,0 +1,55 @@
+package rocks.blackblock.topper.statistics;
+
+import net.minecraft.nbt.NbtCompound;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The still-encoded scores of a statistic that haven't been decoded into a {@link ScoreColumn} yet.
+ * Sources are immutable, so they can also be read by the background saver.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public interface ScoreSource {
+
+    void forEach(NamedScoreConsumer consumer);
+
+    /**
+     * Receives a player name & score without boxing.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @FunctionalInterface
+    interface NamedScoreConsumer {
+        void accept(String name, int score);
+    }
+
+    /**
+     * Scores stored as a "scores" compound, as loaded from NBT.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    record Nbt(NbtCompound scores) implements ScoreSource {
+        @Override
+        public void forEach(NamedScoreConsumer consumer) {
+            for (String name : this.scores.getKeys())
+                consumer.accept(name, this.scores.getInt(name));
+        }
+    }
+
+    /**
+     * Scores stored as a section of a columnar file, with the file's player dictionary.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    record Columnar(ByteBuffer section, String[] names) implements ScoreSource {
+        @Override
+        public void forEach(NamedScoreConsumer consumer) {
+            CustomStatisticsColumnarFormat.decodeScores(this.section.duplicate(), this.names, consumer);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package rocks.blackblock.topper.statistics;
+
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.stat.Stat;
+import net.minecraft.util.WorldSavePath;
+import rocks.blackblock.core.component.Component;
+import rocks.blackblock.core.utils.BBLog;
+import rocks.blackblock.topper.BlackBlockTopper;
+import rocks.blackblock.topper.creative.CreativeItemTable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Server-wide totals of the topper item statistics and the mod statistics,
+ * summed over every player that has ever played.
+ *
+ * The totals are kept up to date from every stat change, so they never have to be recomputed.
+ * The first time the component is used on a world, it is seeded once from the existing player stat files,
+ * which are parsed in the background. Until that is done, the totals are incomplete.
+ *
+ * @author   Jade Godwin          <icanhasabanana@gmail.com>
+ * @since    0.2.1
+ */
+public class ServerStatisticsComponent implements Component.Global {
+
+    private static ServerStatisticsComponent INSTANCE = null;
+    private final Object2LongOpenHashMap<String> totals = new Object2LongOpenHashMap<>();
+    private boolean is_seeded = false;
+    private boolean is_seeding = false;
+    private final Set<UUID> seed_touched = new HashSet<>();
+
+    // Which creative items & mod statistics have a total that isn't 0, built when first needed.
+    private CreativeItemTable presence_table = null;
+    private ItemStatCache.ModStats presence_mod_stats = null;
+    private final BitSet non_empty_items = new BitSet();
+    private final BitSet non_empty_mod_stats = new BitSet();
+    private boolean is_dirty = false;
+
+    public ServerStatisticsComponent() {
+        if (INSTANCE != null) {
+            BBLog.log("ServerStatisticsComponent already exists!");
+        } else {
+            INSTANCE = this;
+        }
+    }
+
+    @Override
+    public boolean isDirty() { return this.is_dirty; }
+
+    @Override
+    public void setDirty(boolean dirty) { this.is_dirty = dirty; }
+
+    public void markDirty() { this.setDirty(true); }
+
+    /**
+     * Revive the totals from the given NBT data
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @Override
+    public void readFromNbt(NbtCompound tag) {
+        this.totals.clear();
+        NbtCompound totals = tag.getCompound("totals");
+        for (String name : totals.getKeys())
+            this.totals.put(name, totals.getLong(name));
+        this.is_seeded = tag.getBoolean("seeded");
+        this.presence_table = null;
+    }
+
+    /**
+     * Write the totals to the given NBT data
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @Override
+    public NbtCompound writeToNbt(NbtCompound tag) {
+        NbtCompound totals = new NbtCompound();
+        for (Object2LongOpenHashMap.Entry<String> entry : this.totals.object2LongEntrySet())
+            if (entry.getLongValue() != 0)
+                totals.putLong(entry.getKey(), entry.getLongValue());
+        tag.put("totals", totals);
+        tag.putBoolean("seeded", this.is_seeded);
+        return tag;
+    }
+
+    /**
+     * Get the server-wide total of the given stat.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public long getTotal(Stat<?> stat) {
+        if (stat == null) return 0;
+        return this.totals.getLong(stat.getName());
+    }
+
+    /**
+     * Called when any player's stat changes from one value to another.
+     * Only stats shown on the Statistics screen are counted.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void onStatChanged(PlayerEntity player, Stat<?> stat, int old_value, int new_value) {
+        if (old_value == new_value || !isTracked(stat)) return;
+
+        // While seeding, the player is counted when the totals are published instead.
+        if (this.is_seeding) {
+            this.seed_touched.add(player.getUuid());
+            return;
+        }
+
+        this.totals.addTo(stat.getName(), (long) new_value - old_value);
+        this.markDirty();
+        this.updatePresence(stat);
+    }
+
+    /**
+     * Get the ordinals of all creative items with at least one total that isn't 0.
+     * The returned set is live and should not be modified.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public BitSet getNonEmptyItems() {
+        this.ensurePresence();
+        return this.non_empty_items;
+    }
+
+    /**
+     * Get the indexes of all mod statistics with a total that isn't 0.
+     * The returned set is live and should not be modified.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public BitSet getNonEmptyModStats() {
+        this.ensurePresence();
+        return this.non_empty_mod_stats;
+    }
+
+    private void updatePresence(Stat<?> stat) {
+        if (this.presence_table != CreativeItemTable.get() || this.presence_mod_stats != ItemStatCache.getModStats()) return;
+
+        int[] slots = this.presence_table.getStatSlots(stat);
+        if (slots != null)
+            for (int slot : slots)
+                this.updateItemPresence(slot / CreativeItemTable.COLUMNS);
+
+        int index = this.presence_mod_stats.indexOf(stat);
+        if (index != -1)
+            this.non_empty_mod_stats.set(index, this.getTotal(stat) != 0);
+    }
+
+    private void updateItemPresence(int ordinal) {
+        for (int column = 0; column < CreativeItemTable.COLUMNS; column++) {
+            if (this.getTotal(this.presence_table.getStat(ordinal, column)) != 0) {
+                this.non_empty_items.set(ordinal);
+                return;
+            }
+        }
+        this.non_empty_items.clear(ordinal);
+    }
+
+    /**
+     * Build the presence bitsets the first time they're needed, or when the items or mod statistics have changed.
+     */
+    private void ensurePresence() {
+        CreativeItemTable table = CreativeItemTable.get();
+        ItemStatCache.ModStats mod_stats = ItemStatCache.getModStats();
+        if (this.presence_table == table && this.presence_mod_stats == mod_stats) return;
+
+        this.presence_table = table;
+        this.presence_mod_stats = mod_stats;
+        this.non_empty_items.clear();
+        this.non_empty_mod_stats.clear();
+        for (int ordinal = 0; ordinal < table.size(); ordinal++)
+            this.updateItemPresence(ordinal);
+        for (int i = 0; i < mod_stats.size(); i++)
+            this.non_empty_mod_stats.set(i, this.getTotal(mod_stats.getStat(i)) != 0);
+    }
+
+    /**
+     * See if the given stat is a topper item stat or a mod stat.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public static boolean isTracked(Stat<?> stat) {
+        return CreativeItemTable.get().getStatSlots(stat) != null || ItemStatCache.getModStats().indexOf(stat) != -1;
+    }
+
+    /**
+     * Start seeding the totals from the existing player stat files, the first time the server starts with this component.
+     * The files are parsed in the background by the {@link OfflineStatsIndex}, the totals are published by
+     * {@link #tick(MinecraftServer)} once its first snapshot is ready.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void seed(MinecraftServer server) {
+        if (this.is_seeded || this.is_seeding) return;
+        this.is_seeding = true;
+        this.seed_touched.clear();
+    }
+
+    /**
+     * Publish the seeded totals once the offline stats index has parsed every stat file.
+     *
+     * Players can join while the files are being parsed, and their files can be read before or after their stats change.
+     * So every player whose stats changed during seeding, or who is online, is left out of the files' sums:
+     * online players are counted from their live stats, the others by reading their (by now saved) file again.
+     *
+     * @author   Jade Godwin          <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public void tick(MinecraftServer server) {
+        if (!this.is_seeding || !OfflineStatsIndex.hasSnapshot()) return;
+
+        // Gather the players that have to be counted separately.
+        Set<UUID> excluded = new HashSet<>(this.seed_touched);
+        List<ServerPlayerEntity> online = server.getPlayerManager().getPlayerList();
+        for (ServerPlayerEntity player : online)
+            excluded.add(player.getUuid());
+
+        // Sum up the snapshot of the files.
+        OfflineStatsIndex.Snapshot snapshot = OfflineStatsIndex.getSnapshot();
+        Set<String> tracked = PlayerStatFiles.getTrackedStatNames();
+        this.totals.clear();
+        for (String name : tracked) {
+            int[] players = snapshot.getColumnPlayers(name);
+            int[] values = snapshot.getColumnValues(name);
+            for (int i = 0; i < players.length; i++)
+                if (!excluded.contains(snapshot.getPlayer(players[i])))
+                    this.totals.addTo(name, values[i]);
+        }
+
+        // Add the live stats of online players.
+        Set<Stat<?>> tracked_stats = PlayerStatFiles.getTrackedStats();
+        for (ServerPlayerEntity player : online) {
+            excluded.remove(player.getUuid());
+            for (Stat<?> stat : tracked_stats) {
+                int value = player.getStatHandler().getStat(stat);
+                if (value != 0) this.totals.addTo(stat.getName(), value);
+            }
+        }
+
+        // Re-read the files of the players that left during seeding.
+        Path directory = server.getSavePath(WorldSavePath.STATS);
+        for (UUID uuid : excluded) {
+            Path path = directory.resolve(uuid + ".json");
+            if (Files.isRegularFile(path))
+                PlayerStatFiles.read(path, tracked, this.totals::addTo);
+        }
+
+        this.is_seeding = false;
+        this.is_seeded = true;
+        this.seed_touched.clear();
+        this.presence_table = null;
+        this.markDirty();
+        BlackBlockTopper.LOGGER.info("Seeded the server statistics from " + snapshot.getPlayerCount() + " player stat file(s)");
+    }
+
+    public static ServerStatisticsComponent getInstance() {
+        if (INSTANCE != null) return INSTANCE;
+        return BlackBlockTopper.SERVER_STATS.get();
+    }
+}
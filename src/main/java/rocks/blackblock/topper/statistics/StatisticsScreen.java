@@ -1,15 +1,11 @@
 package rocks.blackblock.topper.statistics;
 
-import net.minecraft.item.BlockItem;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtList;
 import net.minecraft.nbt.NbtString;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.stat.Stat;
 import net.minecraft.stat.StatFormatter;
-import net.minecraft.stat.Stats;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Style;
 import net.minecraft.text.Text;
@@ -20,7 +16,7 @@ import rocks.blackblock.screenbuilder.BBSB;
 import rocks.blackblock.screenbuilder.ScreenBuilder;
 import rocks.blackblock.screenbuilder.interfaces.SlotEventListener;
 import rocks.blackblock.screenbuilder.slots.ButtonWidgetSlot;
-import rocks.blackblock.topper.BlackBlockTopper;
+import rocks.blackblock.topper.creative.CreativeItemTable;
 import rocks.blackblock.topper.screen.ItemBrowsingScreen;
 import rocks.blackblock.topper.screen.SortCriteria;
 import rocks.blackblock.topper.screen.SortOrder;
@@ -40,12 +36,37 @@ public class StatisticsScreen extends ItemBrowsingScreen {
     private SortCriteria sort_criteria = SortCriteria.DEFAULT;
     private SortOrder sort_order = SortOrder.DESCENDING;
     private boolean hide_empty_stats = false;
+    private String search_query = null;
+
+    // How many players are shown on each leaderboard.
+    private static final int LEADERBOARD_SIZE = 10;
+
+    // How many stats fit on a page.
+    private static final int SLOTS_PER_PAGE = 40;
+
+    // The hide empty button, which shows the live discovered count.
+    private ButtonWidgetSlot hide_button;
+
+    // The chat messages of each item slot on the current page.
+    private final List<List<Text>> grid_messages = new ArrayList<>();
 
     public StatisticsScreen(ServerPlayerEntity player) {
         super();
         this.player = player;
     }
 
+    /**
+     * Open the items tab in search mode, showing the items matching the query in ranked order.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    public StatisticsScreen(ServerPlayerEntity player, String search_query) {
+        this(player);
+        this.selected_tab = StatisticsTab.ITEMS;
+        this.search_query = search_query;
+    }
+
     /**
      * Get all the custom items & blocks
      * Ordered by the current sort order and filtered by the current tab.
@@ -54,30 +75,27 @@ public class StatisticsScreen extends ItemBrowsingScreen {
      * @since    0.2.0
      */
     private List<Item> getItems() {
-        // If all items does not yet exist, make it.
-        if (BlackBlockTopper.CREATIVE_ITEMS_FLATTENED == null)
-            BlackBlockTopper.CREATIVE_ITEMS_FLATTENED = BlackBlockTopper.CREATIVE_ITEMS.values().stream().toList();
+        CreativeItemTable table = CreativeItemTable.get();
         ArrayList<Item> returned_items = new ArrayList<>();
 
-        // If we're hiding empty stats, we need to only add on the ones that don't have 0's in AT LEAST one stat.
-        if (hide_empty_stats) {
-            BlackBlockTopper.CREATIVE_ITEMS_FLATTENED.forEach(item -> {
-                if (!(
-                        (!(item instanceof BlockItem blockItem) || player.getStatHandler().getStat(Stats.MINED.getOrCreateStat(blockItem.getBlock())) == 0) &&
-                        player.getStatHandler().getStat(Stats.CRAFTED.getOrCreateStat(item)) == 0 &&
-                        player.getStatHandler().getStat(Stats.USED.getOrCreateStat(item)) == 0 &&
-                        player.getStatHandler().getStat(Stats.BROKEN.getOrCreateStat(item)) == 0 &&
-                        player.getStatHandler().getStat(Stats.PICKED_UP.getOrCreateStat(item)) == 0 &&
-                        player.getStatHandler().getStat(Stats.DROPPED.getOrCreateStat(item)) == 0)
-                ) {
+        // When searching, use the ranked search results, leaving out the empty ones if needed.
+        if (this.search_query != null) {
+            BitSet non_empty = this.getItemStatCache().getNonEmptyItems();
+            for (Item item : table.getSearchIndex().search(this.search_query))
+                if (!hide_empty_stats || non_empty.get(table.getOrdinal(item)))
                     returned_items.add(item);
-                }
-            });
+        }
+
+        // If we're hiding empty stats, we need to only add on the ones that don't have 0's in AT LEAST one stat.
+        else if (hide_empty_stats) {
+            BitSet non_empty = this.getItemStatCache().getNonEmptyItems();
+            for (int i = non_empty.nextSetBit(0); i >= 0; i = non_empty.nextSetBit(i + 1))
+                returned_items.add(table.getItem(i));
         }
 
         // Copy all items over.
         else {
-            returned_items.addAll(BlackBlockTopper.CREATIVE_ITEMS_FLATTENED);
+            returned_items.addAll(table.getItems());
         }
 
         // Implement sort criteria & return.
@@ -85,6 +103,16 @@ public class StatisticsScreen extends ItemBrowsingScreen {
         return returned_items;
     }
 
+    /**
+     * Get the cached item stats of the player.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private ItemStatCache getItemStatCache() {
+        return ((ItemStatCacheHolder) this.player.getStatHandler()).blackblock$getItemStatCache();
+    }
+
     /**
      * Get all the general stats under the blackblock and bbstats namespaces.
      * Because of the way the general stats work, these have to be re-generated every time as they are NOT shared
@@ -96,38 +124,48 @@ public class StatisticsScreen extends ItemBrowsingScreen {
     private List<ItemStack> getGeneralStats() {
         // Create item stacks from mod-level statistics.
         List<ItemStack> mod_stacks = new ArrayList<>();
-        BlackBlockTopper.STAT_ITEMS.forEach((id, item) -> {
-            // Get stat & formatter. Skip if stat is 0 and we're hiding empty stats.
-            StatFormatter formatter = BlackBlockCore.STAT_FORMATS.get(id).getFormatter();
-            int stat = player.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(id, formatter));
-            if (!(hide_empty_stats && stat == 0)) {
+        ItemStatCache cache = this.getItemStatCache();
+        ItemStatCache.ModStats mod_stats = ItemStatCache.getModStats();
+        BitSet non_empty_mod_stats = cache.getNonEmptyModStats();
+        for (int i = 0; i < mod_stats.size(); i++) {
+            // Skip if stat is 0 and we're hiding empty stats.
+            if (hide_empty_stats && !non_empty_mod_stats.get(i)) continue;
+            Identifier id = mod_stats.getId(i);
+            int stat = cache.getModStat(i);
 
-                // Instantiate item stack.
-                ItemStack stack = new ItemStack(item);
+            // Instantiate item stack.
+            ItemStack stack = new ItemStack(mod_stats.getIcon(i));
 
-                // Give the stack the appropriate name (translatable) and value, then put into list.
-                stack.setCustomName(Text.translatable("stat." + id.toTranslationKey()).append(Text.literal(": ").append(Text.literal(formatter.format(stat)).formatted(Formatting.WHITE))).setStyle(Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false)));
-                mod_stacks.add(stack);
-            }
-        });
+            // Give the stack the appropriate name (translatable) and value, then put into list.
+            StatFormatter formatter = BlackBlockCore.STAT_FORMATS.get(id).getFormatter();
+            stack.setCustomName(Text.translatable("stat." + id.toTranslationKey()).append(Text.literal(": ").append(Text.literal(formatter.format(stat)).formatted(Formatting.WHITE))).setStyle(Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false)));
+            mod_stacks.add(stack);
+        }
 
         // If sort criteria is default, do an alphabetical sort NOW.
         if (this.sort_criteria == SortCriteria.DEFAULT) SortCriteria.ALPHABETICAL.sort(mod_stacks, player, SortOrder.DESCENDING);
 
         // Create item stacks from mod-level statistics.
         List<ItemStack> custom_stacks = new ArrayList<>();
-        CustomStatisticsComponent.getInstance().getCustomStatistics().forEach(customStatistic -> {
+        String player_name = player.getName().getString();
+        List<CustomStatistic> custom_statistics = CustomStatisticsComponent.getInstance().getCustomStatistics();
+        BitSet custom_presence = CustomStatisticsComponent.getInstance().getScorePresence(player_name);
+        for (int i = 0; i < custom_statistics.size(); i++) {
             // Skip if stat is 0 and we're hiding empty stats.
-            if (!(hide_empty_stats && customStatistic.getScore(player.getName().getString()) == 0)) {
-                // Instantiate item stack.
-                ItemStack stack = customStatistic.getDisplayItem().copy();
-
-                // Give the stack the appropriate name and value, put the owner in the lore and NBT, then put into list.
-                stack.setCustomName(Text.literal(customStatistic.getDisplayName()).append(Text.literal(": ").append(Text.literal(String.valueOf(customStatistic.getFormattedScore(player.getName().getString()))).formatted(Formatting.WHITE))).setStyle(Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false)));
-                stack.setSubNbt("custom_stat_owner", NbtString.of(customStatistic.getOwner()));
-                custom_stacks.add(stack);
-            }
-        });
+            boolean has_score = custom_presence.get(i);
+            if (hide_empty_stats && !has_score) continue;
+            CustomStatistic customStatistic = custom_statistics.get(i);
+
+            // Instantiate item stack.
+            ItemStack stack = customStatistic.getDisplayItem().copy();
+
+            // Give the stack the appropriate name and value, put the owner in the lore and NBT, then put into list.
+            // Only stats the player has a score in are decoded, the others are known to be 0.
+            String score = has_score ? customStatistic.getFormattedScore(player_name) : customStatistic.getFormat().getFormatter().format(0);
+            stack.setCustomName(Text.literal(customStatistic.getDisplayName()).append(Text.literal(": ").append(Text.literal(score).formatted(Formatting.WHITE))).setStyle(Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false)));
+            stack.setSubNbt("custom_stat_owner", NbtString.of(customStatistic.getOwner()));
+            custom_stacks.add(stack);
+        }
 
         // If sort criteria is default, do an alphabetical THEN an owner sort NOW.
         if (this.sort_criteria == SortCriteria.DEFAULT) {
@@ -140,8 +178,7 @@ public class StatisticsScreen extends ItemBrowsingScreen {
         all_stacks.addAll(custom_stacks);
 
         // Perform final sorting stuff.
-        if (this.sort_criteria != SortCriteria.DEFAULT) this.sort_criteria.sort(all_stacks, player, this.sort_order);
-        else if (this.sort_order == SortOrder.ASCENDING) Collections.reverse(all_stacks);
+        this.sort_criteria.sort(all_stacks, player, this.sort_order);
 
         // Return.
         return all_stacks;
@@ -165,9 +202,9 @@ public class StatisticsScreen extends ItemBrowsingScreen {
 
         // Set up tab button listeners. All 3 buttons have the same function.
         SlotEventListener listener = (screen, slot) -> {
-            this.selected_tab = tab; this.page = 1;
+            this.selected_tab = tab; this.page = 1; this.search_query = null;
             while (!this.selected_tab.getAllowedSortCriteria().contains(this.sort_criteria)) { this.sort_criteria = sort_criteria.next(); }
-            screen.replaceScreen(this);
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         };
         tab_button.addLeftClickListener(listener);
         tab_button.addRightClickListener(listener);
@@ -190,10 +227,14 @@ public class StatisticsScreen extends ItemBrowsingScreen {
         if (hide_empty_stats)
             hide_button.addOverlay(BBSB.CHECK_ICON);
 
+        // Show how many of the stats in this tab have been discovered.
+        hide_button.setLore(this.getDiscoveredText());
+        this.hide_button = hide_button;
+
         // Add click behavior.
         SlotEventListener left_click_behavior = (screen, slot) -> {
             this.hide_empty_stats = !this.hide_empty_stats;
-            screen.replaceScreen(this);
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         };
         hide_button.addLeftClickListener(left_click_behavior);
         hide_button.addMiddleClickListener(left_click_behavior);
@@ -201,6 +242,47 @@ public class StatisticsScreen extends ItemBrowsingScreen {
 
     }
 
+    /**
+     * Get the text saying how many of the stats in the selected tab have been discovered.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private MutableText getDiscoveredText() {
+        int discovered; int total;
+        if (this.selected_tab == StatisticsTab.ITEMS) {
+            discovered = this.getItemStatCache().getNonEmptyItems().cardinality();
+            total = CreativeItemTable.get().size();
+        } else if (this.selected_tab == StatisticsTab.LEADERBOARDS) {
+            discovered = 0;
+            total = ItemStatCache.getModStats().size();
+            for (int i = 0; i < total; i++) {
+                ModStatLeaderboards.Leaderboard leaderboard = ModStatLeaderboards.get(ItemStatCache.getModStats().getId(i));
+                if (leaderboard != null && leaderboard.getRank(player.getUuid()) > 0) discovered++;
+            }
+        } else if (this.selected_tab == StatisticsTab.SERVER) {
+            ServerStatisticsComponent server_stats = ServerStatisticsComponent.getInstance();
+            discovered = server_stats.getNonEmptyModStats().cardinality() + server_stats.getNonEmptyItems().cardinality();
+            total = ItemStatCache.getModStats().size() + CreativeItemTable.get().size();
+        } else {
+            CustomStatisticsComponent custom_stats = CustomStatisticsComponent.getInstance();
+            discovered = this.getItemStatCache().getNonEmptyModStats().cardinality() + custom_stats.getScorePresence(player.getName().getString()).cardinality();
+            total = ItemStatCache.getModStats().size() + custom_stats.getCustomStatistics().size();
+        }
+        return Text.literal(discovered + " of " + total + " discovered").setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.GRAY));
+    }
+
+    /**
+     * Refresh the discovered count, which changes while the screen is open.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @Override
+    protected void updateLayout() {
+        this.hide_button.setLore(this.getDiscoveredText());
+    }
+
     /**
      * Add sort buttons.
      *
@@ -219,13 +301,15 @@ public class StatisticsScreen extends ItemBrowsingScreen {
         // Set criteria button behavior. Middle click and left click have the same function.
         SlotEventListener left_click_criteria_behavior = (screen, slot) -> {
             do { this.sort_criteria = sort_criteria.next(); } while (!this.selected_tab.getAllowedSortCriteria().contains(this.sort_criteria));
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         };
         criteria_button.addLeftClickListener(left_click_criteria_behavior);
         criteria_button.addMiddleClickListener(left_click_criteria_behavior);
         criteria_button.addRightClickListener((screen, slot) -> {
             do { this.sort_criteria = sort_criteria.prev(); } while (!this.selected_tab.getAllowedSortCriteria().contains(this.sort_criteria));
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         });
 
         // Add order button.
@@ -237,17 +321,24 @@ public class StatisticsScreen extends ItemBrowsingScreen {
         // Set order button behavior. Middle click and left click have the same function.
         SlotEventListener left_click_order_behavior = (screen, slot) -> {
             this.sort_order = sort_order.next();
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         };
         order_button.addLeftClickListener(left_click_order_behavior);
         order_button.addMiddleClickListener(left_click_order_behavior);
         order_button.addRightClickListener((screen, slot) -> {
             this.sort_order = sort_order.prev();
-            this.page = 1; screen.replaceScreen(this);
+            this.page = 1;
+            if (this.updateGrid(screen)) screen.replaceScreen(this);
         });
     }
 
 
+    @Override
+    protected Object getLayoutState() {
+        return Arrays.asList(this.selected_tab, this.sort_criteria, this.sort_order, this.hide_empty_stats, this.search_query);
+    }
+
     /**
      * Create the actual Screen instance.
      * Most of this code is lifted straight from v1 of the CreativeScreen in Blackblock Tools.
@@ -262,11 +353,13 @@ public class StatisticsScreen extends ItemBrowsingScreen {
         sb.setCloneSlots(false);
 
         // Set display name.
-        this.setDisplayName("Blackblock Statistics");
+        this.setDisplayName(this.search_query == null ? "Blackblock Statistics" : "Search: " + this.search_query);
 
         // Add tab buttons.
         this.addTabButton(sb, 0, StatisticsTab.GENERAL);
         this.addTabButton(sb, 9, StatisticsTab.ITEMS);
+        this.addTabButton(sb, 18, StatisticsTab.SERVER);
+        this.addTabButton(sb, 36, StatisticsTab.LEADERBOARDS);
 
         // Add hide empty button.
         this.addHideEmptyButton(sb, 27);
@@ -275,93 +368,266 @@ public class StatisticsScreen extends ItemBrowsingScreen {
         this.addSortButtons(sb, 46);
 
         // Add items and return.
-        switch (selected_tab) {
-            case GENERAL -> this.addGeneralStatItems(sb);
-            case ITEMS -> this.addItemItems(sb);
-        }
+        this.addGrid(sb);
         return sb;
     }
 
+    @Override
+    protected int getGridSize() {
+        return SLOTS_PER_PAGE;
+    }
+
+    @Override
+    protected int getGridSlot(int index) {
+        return index + 1 + index / 8;
+    }
+
+    /**
+     * Set up an item slot to send its entry's messages in chat.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @Override
+    protected void setUpGridButton(ButtonWidgetSlot button, int index) {
+        SlotEventListener listener = (screen, slot) -> {
+            if (index < this.grid_messages.size())
+                this.grid_messages.get(index).forEach(player::sendMessage);
+        };
+
+        // Add listener to all 3 buttons.
+        button.addLeftClickListener(listener);
+        button.addMiddleClickListener(listener);
+        button.addRightClickListener(listener);
+    }
+
+    /**
+     * Put the current page of the selected tab in the grid.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    @Override
+    protected int fillGrid() {
+        this.grid_messages.clear();
+        return switch (selected_tab) {
+            case GENERAL -> this.fillGeneralStats();
+            case ITEMS -> this.fillItemStats();
+            case SERVER -> this.fillServerStats();
+            case LEADERBOARDS -> this.fillLeaderboards();
+        };
+    }
+
+    /**
+     * Show a stat in the item slot with the given index.
+     * The messages are sent in chat when the slot is clicked.
+     * Entries are always set in order, starting from the first slot.
+     */
+    private void setStatEntry(int index, ItemStack stack, List<MutableText> lore, List<Text> messages) {
+        this.setGridEntry(index, stack, lore);
+        this.grid_messages.add(messages);
+    }
 
+    /**
+     * Get the amount of pages needed for the given amount of entries.
+     */
+    private static int getPageCount(int item_count) {
+        return (int) Math.ceil(item_count / (double) SLOTS_PER_PAGE);
+    }
 
     /**
-     * Add the items to the screen!
+     * Put the items in the grid!
      * As in, the item items. The items with shit like broken, mined, used, dropped, etc.
      *
      * @author  Jade Godwin         <icanhasabanana@gmail.com>
      * @since    0.2.0
      */
-    private void addItemItems(ScreenBuilder sb) {
+    private int fillItemStats() {
         // Get selected items.
         List<Item> all_selected_items = this.getItems();
+        ItemStatCache cache = this.getItemStatCache();
 
         // Get page slot info.
-        int slots_per_page = 40;
         int item_count = all_selected_items.size();
-        int start = (this.page - 1) * slots_per_page;
-        int end = Math.min(start + slots_per_page, item_count);
+        int start = Math.min((this.page - 1) * SLOTS_PER_PAGE, item_count);
+        int end = Math.min(start + SLOTS_PER_PAGE, item_count);
 
         // Get subset of items.
         List<Item> items = all_selected_items.subList(start, end);
 
         // Fill the screen's slots.
+        CreativeItemTable table = CreativeItemTable.get();
         for (int i = 0; i < items.size(); i++) {
-            // Create stack with statistics on it.
-            ItemStack stack = new ItemStack(items.get(i));
-            NbtList stats_lore = new NbtList();
-
-            // Put the stat lore back into the item stack, then make item name yellow.
-            NbtCompound display_nbt = new NbtCompound();
-            display_nbt.put("Lore", stats_lore);
-            stack.setSubNbt("display", display_nbt);
-            stack.setCustomName(Text.translatable(stack.getTranslationKey()).setStyle(Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false)));
-
-            // Create button stack.
-            ButtonWidgetSlot button = sb.addButton(i + 1 + i / 8);
-            button.setStack(stack);
-
-            // Add on all the stats.
-            button.setLore(Arrays.stream(new MutableText[]{
-                Text.literal("- ").append(Text.literal("Times Mined: " + (items.get(i) instanceof BlockItem blockItem ? player.getStatHandler().getStat(Stats.MINED.getOrCreateStat(blockItem.getBlock())) : "0")).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW)),
-                Text.literal("- ").append(Text.literal("Times Crafted: " + player.getStatHandler().getStat(Stats.CRAFTED.getOrCreateStat(items.get(i)))).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW)),
-                Text.literal("- ").append(Text.literal("Times Used: " + player.getStatHandler().getStat(Stats.USED.getOrCreateStat(items.get(i)))).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW)),
-                Text.literal("- ").append(Text.literal("Times Broken: " + player.getStatHandler().getStat(Stats.BROKEN.getOrCreateStat(items.get(i)))).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW)),
-                Text.literal("- ").append(Text.literal("Picked Up: " + player.getStatHandler().getStat(Stats.PICKED_UP.getOrCreateStat(items.get(i)))).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW)),
-                Text.literal("- ").append(Text.literal("Dropped: " + player.getStatHandler().getStat(Stats.DROPPED.getOrCreateStat(items.get(i)))).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW))
-            }).toList());
-
-            // Set up listener to send message in chat.
-            SlotEventListener listener = (screen, slot) -> {
-                // Send this item's stats in chat.
-                player.sendMessage(Text.translatable(stack.getTranslationKey()).formatted(Formatting.YELLOW).append(Text.literal(" has the following statistics:").formatted(Formatting.WHITE)));
-                if (stack.getItem() instanceof BlockItem blockItem) player.sendMessage(Text.literal("- ").formatted(Formatting.YELLOW).append(Text.literal("Times Mined: " + player.getStatHandler().getStat(Stats.MINED.getOrCreateStat(blockItem.getBlock()))).formatted(Formatting.WHITE)));
-                else player.sendMessage(Text.literal("- ").formatted(Formatting.YELLOW).append(Text.literal("Times Mined: 0").formatted(Formatting.WHITE)));
-                player.sendMessage(Text.literal("- ").formatted(Formatting.YELLOW).append(Text.literal("Times Crafted: " + player.getStatHandler().getStat(Stats.CRAFTED.getOrCreateStat(stack.getItem()))).formatted(Formatting.WHITE)));
-                player.sendMessage(Text.literal("- ").formatted(Formatting.YELLOW).append(Text.literal("Times Used: " + player.getStatHandler().getStat(Stats.USED.getOrCreateStat(stack.getItem()))).formatted(Formatting.WHITE)));
-                player.sendMessage(Text.literal("- ").formatted(Formatting.YELLOW).append(Text.literal("Times Broken: " + player.getStatHandler().getStat(Stats.BROKEN.getOrCreateStat(stack.getItem()))).formatted(Formatting.WHITE)));
-                player.sendMessage(Text.literal("- ").formatted(Formatting.YELLOW).append(Text.literal("Picked Up: " + player.getStatHandler().getStat(Stats.PICKED_UP.getOrCreateStat(stack.getItem()))).formatted(Formatting.WHITE)));
-                player.sendMessage(Text.literal("- ").formatted(Formatting.YELLOW).append(Text.literal("Dropped: " + player.getStatHandler().getStat(Stats.DROPPED.getOrCreateStat(stack.getItem()))).formatted(Formatting.WHITE)));
-            };
-
-            // Add listener to all 3 buttons.
-            button.addLeftClickListener(listener);
-            button.addMiddleClickListener(listener);
-            button.addRightClickListener(listener);
+            // Create stack with the shared yellow item name.
+            Item item = items.get(i);
+            int ordinal = table.getOrdinal(item);
+            ItemStack stack = new ItemStack(item);
+            stack.setCustomName(ItemStatLore.getName(ordinal));
+
+            // Add on all the stats, and send them in chat on a click.
+            List<MutableText> lore = ItemStatLore.getLore(cache, ordinal);
+            List<Text> messages = new ArrayList<>();
+            messages.add(Text.translatable(stack.getTranslationKey()).formatted(Formatting.YELLOW).append(Text.literal(" has the following statistics:").formatted(Formatting.WHITE)));
+            messages.addAll(lore);
+            this.setStatEntry(i, stack, lore, messages);
         }
 
-        // Add pagination!
-        this.setUpPagination(sb, (int) Math.ceil(item_count / (double) slots_per_page));
+        return getPageCount(item_count);
+    }
+
+    /**
+     * Get the server-wide totals of the creative item with the given ordinal.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private static long[] getServerTotals(int ordinal) {
+        CreativeItemTable table = CreativeItemTable.get();
+        ServerStatisticsComponent server_stats = ServerStatisticsComponent.getInstance();
+        long[] totals = new long[CreativeItemTable.COLUMNS];
+        for (int column = 0; column < CreativeItemTable.COLUMNS; column++)
+            totals[column] = server_stats.getTotal(table.getStat(ordinal, column));
+        return totals;
     }
 
-    private void addGeneralStatItems(ScreenBuilder sb) {
+    /**
+     * Add the server-wide totals to the screen.
+     * Mod statistics come first, followed by the creative items with the totals of each of their stats.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private int fillServerStats() {
+        ServerStatisticsComponent server_stats = ServerStatisticsComponent.getInstance();
+        List<ItemStack> all_stacks = new ArrayList<>();
+        List<List<MutableText>> all_lore = new ArrayList<>();
+
+        // Add the mod statistics.
+        ItemStatCache.ModStats mod_stats = ItemStatCache.getModStats();
+        for (int i = 0; i < mod_stats.size(); i++) {
+            long total = server_stats.getTotal(mod_stats.getStat(i));
+            if (hide_empty_stats && total == 0) continue;
+
+            // Totals can outgrow the formatters, which only take ints.
+            Identifier id = mod_stats.getId(i);
+            String value = total <= Integer.MAX_VALUE && total >= Integer.MIN_VALUE ? BlackBlockCore.STAT_FORMATS.get(id).getFormatter().format((int) total) : String.valueOf(total);
+            ItemStack stack = new ItemStack(mod_stats.getIcon(i));
+            stack.setCustomName(Text.translatable("stat." + id.toTranslationKey()).append(Text.literal(": ").append(Text.literal(value).formatted(Formatting.WHITE))).setStyle(Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false)));
+            all_stacks.add(stack);
+            all_lore.add(List.of());
+        }
+
+        // Add the creative items.
+        CreativeItemTable table = CreativeItemTable.get();
+        BitSet non_empty_items = server_stats.getNonEmptyItems();
+        for (int i = 0; i < table.size(); i++) {
+            if (hide_empty_stats && !non_empty_items.get(i)) continue;
+            long[] totals = getServerTotals(i);
+
+            ItemStack stack = new ItemStack(table.getItem(i));
+            stack.setCustomName(ItemStatLore.getName(i));
+            all_stacks.add(stack);
+            all_lore.add(ItemStatLore.getLore(totals));
+        }
+
+        // Sort the entries, keeping every stack together with its lore.
+        List<Integer> order = new ArrayList<>(all_stacks.size());
+        for (int i = 0; i < all_stacks.size(); i++) order.add(i);
+        this.sort_criteria.sort(order, i -> all_stacks.get(i).getName().getString().toLowerCase(), this.sort_order);
+
+        // Fill the screen's slots.
+        int item_count = order.size();
+        int start = Math.min((this.page - 1) * SLOTS_PER_PAGE, item_count);
+        int end = Math.min(start + SLOTS_PER_PAGE, item_count);
+        for (int i = 0; i < end - start; i++) {
+            ItemStack stack = all_stacks.get(order.get(start + i));
+            List<MutableText> lore = all_lore.get(order.get(start + i));
+
+            // Send the name and the totals in chat on a click.
+            List<Text> messages = new ArrayList<>();
+            messages.add(stack.getName());
+            messages.addAll(lore);
+            this.setStatEntry(i, stack, lore, messages);
+        }
+
+        return getPageCount(item_count);
+    }
+
+    /**
+     * Add the leaderboards of the mod statistics to the screen.
+     * Each stat shows the top players and the viewer's own rank in its lore.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.1
+     */
+    private int fillLeaderboards() {
+        List<ItemStack> all_stacks = new ArrayList<>();
+        List<List<MutableText>> all_lore = new ArrayList<>();
+
+        // Build a stack for each mod statistic, with its leaderboard in the lore.
+        ItemStatCache.ModStats mod_stats = ItemStatCache.getModStats();
+        for (int i = 0; i < mod_stats.size(); i++) {
+            Identifier id = mod_stats.getId(i);
+            ModStatLeaderboards.Leaderboard leaderboard = ModStatLeaderboards.get(id);
+            if (hide_empty_stats && (leaderboard == null || leaderboard.size() == 0)) continue;
+
+            StatFormatter formatter = BlackBlockCore.STAT_FORMATS.get(id).getFormatter();
+            ItemStack stack = new ItemStack(mod_stats.getIcon(i));
+            stack.setCustomName(Text.translatable("stat." + id.toTranslationKey()).setStyle(Style.EMPTY.withColor(Formatting.YELLOW).withItalic(false)));
+
+            List<MutableText> lore = new ArrayList<>();
+            if (leaderboard == null) {
+                lore.add(Text.literal("Not ranked yet").setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.GRAY)));
+            } else {
+                for (int rank = 0; rank < Math.min(LEADERBOARD_SIZE, leaderboard.size()); rank++)
+                    lore.add(Text.literal("#" + (rank + 1) + " ").append(Text.literal(leaderboard.names()[rank] + ": " + formatter.format(leaderboard.values()[rank])).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.YELLOW)));
+
+                int own_rank = leaderboard.getRank(player.getUuid());
+                String own_text = own_rank == 0 ? "Unranked" : "#" + own_rank + " of " + leaderboard.size() + " (" + formatter.format(leaderboard.values()[own_rank - 1]) + ")";
+                lore.add(Text.literal("You: ").append(Text.literal(own_text).formatted(Formatting.WHITE)).setStyle(Style.EMPTY.withItalic(false).withColor(Formatting.GOLD)));
+            }
+
+            all_stacks.add(stack);
+            all_lore.add(lore);
+        }
+
+        // Sort the entries, keeping every stack together with its lore.
+        List<Integer> order = new ArrayList<>(all_stacks.size());
+        for (int i = 0; i < all_stacks.size(); i++) order.add(i);
+        this.sort_criteria.sort(order, i -> all_stacks.get(i).getName().getString().toLowerCase(), this.sort_order);
+
+        // Fill the screen's slots.
+        int item_count = order.size();
+        int start = Math.min((this.page - 1) * SLOTS_PER_PAGE, item_count);
+        int end = Math.min(start + SLOTS_PER_PAGE, item_count);
+        for (int i = 0; i < end - start; i++) {
+            ItemStack stack = all_stacks.get(order.get(start + i));
+            List<MutableText> lore = all_lore.get(order.get(start + i));
+
+            // Send the name and the leaderboard in chat on a click.
+            List<Text> messages = new ArrayList<>();
+            messages.add(stack.getName());
+            messages.addAll(lore);
+            this.setStatEntry(i, stack, lore, messages);
+        }
+
+        return getPageCount(item_count);
+    }
+
+    /**
+     * Put the general stats in the grid.
+     *
+     * @author  Jade Godwin         <icanhasabanana@gmail.com>
+     * @since    0.2.0
+     */
+    private int fillGeneralStats() {
         // Get selected items.
         List<ItemStack> all_selected_items = this.getGeneralStats();
 
         // Get page slot info.
-        int slots_per_page = 40;
         int item_count = all_selected_items.size();
-        int start = (this.page - 1) * slots_per_page;
-        int end = Math.min(start + slots_per_page, item_count);
+        int start = Math.min((this.page - 1) * SLOTS_PER_PAGE, item_count);
+        int end = Math.min(start + SLOTS_PER_PAGE, item_count);
 
         // Get subset of items.
         List<ItemStack> stacks = all_selected_items.subList(start, end);
@@ -371,25 +637,16 @@ public class StatisticsScreen extends ItemBrowsingScreen {
             // Create stack with statistics on it.
             ItemStack stack = stacks.get(i);
 
-            // Create button stack.
-            ButtonWidgetSlot button = sb.addButton(i + 1 + i / 8);
-            button.setStack(stack);
-
             // If stack has a custom_stat_owner attribute, add that to the lore.
+            List<MutableText> lore = List.of();
             if (!stack.getNbt().getString("custom_stat_owner").isEmpty())
-                button.setLore(Text.literal("ᴄᴜꜱᴛᴏᴍ ꜱᴛᴀᴛɪꜱᴛɪᴄ [" + stack.getNbt().getString("custom_stat_owner") + "]"));
-
-            // Set up listener to send message in chat.
-            SlotEventListener listener = (screen, slot) -> player.sendMessage(stack.getName());
+                lore = List.of(Text.literal("ᴄᴜꜱᴛᴏᴍ ꜱᴛᴀᴛɪꜱᴛɪᴄ [" + stack.getNbt().getString("custom_stat_owner") + "]"));
 
-            // Add listener to all 3 buttons.
-            button.addLeftClickListener(listener);
-            button.addMiddleClickListener(listener);
-            button.addRightClickListener(listener);
+            // Send the stat in chat on a click.
+            this.setStatEntry(i, stack, lore, List.of(stack.getName()));
         }
 
-        // Add pagination!
-        this.setUpPagination(sb, (int) Math.ceil(item_count / (double) slots_per_page));
+        return getPageCount(item_count);
     }
 
     /**
@@ -10,7 +10,9 @@ import java.util.Collection;
 public enum StatisticsTab {
 
     GENERAL("General Stats", BBSB.HEART_ICON, SortCriteria.DEFAULT, SortCriteria.ALPHABETICAL, SortCriteria.OWNER),
-    ITEMS("Items", BBSB.INGOT_ICON, SortCriteria.DEFAULT, SortCriteria.ALPHABETICAL, SortCriteria.MINED, SortCriteria.BROKEN, SortCriteria.CRAFTED, SortCriteria.USED, SortCriteria.PICKED_UP, SortCriteria.DROPPED);
+    ITEMS("Items", BBSB.INGOT_ICON, SortCriteria.DEFAULT, SortCriteria.ALPHABETICAL, SortCriteria.MINED, SortCriteria.BROKEN, SortCriteria.CRAFTED, SortCriteria.USED, SortCriteria.PICKED_UP, SortCriteria.DROPPED),
+    SERVER("Server Stats", BBSB.ASTERISK_ICON, SortCriteria.DEFAULT, SortCriteria.ALPHABETICAL),
+    LEADERBOARDS("Leaderboards", BBSB.MINI_FLAG_ICON, SortCriteria.DEFAULT, SortCriteria.ALPHABETICAL);
 
     private final String name;
     private final IconTexture icon;